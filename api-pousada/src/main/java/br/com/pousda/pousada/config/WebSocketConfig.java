@@ -1,14 +1,28 @@
 package br.com.pousda.pousada.config;
 ;
 
+import br.com.pousda.pousada.security.WebSocketAuthInterceptor;
+import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.converter.AbstractMessageConverter;
+import org.springframework.messaging.converter.MessageConverter;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.util.MimeTypeUtils;
 import org.springframework.web.socket.config.annotation.*;
 
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
 @Configuration
 @EnableWebSocketMessageBroker
+@RequiredArgsConstructor
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    private final WebSocketAuthInterceptor authInterceptor;
+
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
         config.enableSimpleBroker("/topic", "/queue");
@@ -22,4 +36,42 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
                 .setAllowedOriginPatterns("*")
                 .withSockJS();
     }
+
+    // CONNECT com JWT -> sessão STOMP identificada pelo id do usuário (destinos /user/{uid}/...)
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.interceptors(authInterceptor);
+    }
+
+    // JSON já serializado (String) sai como está; os conversores padrão continuam depois deste
+    @Override
+    public boolean configureMessageConverters(List<MessageConverter> messageConverters) {
+        messageConverters.add(new JsonProntoMessageConverter());
+        return true;
+    }
+
+    /** String + content-type application/json -> bytes UTF-8, sem passar pelo Jackson. */
+    static final class JsonProntoMessageConverter extends AbstractMessageConverter {
+
+        JsonProntoMessageConverter() {
+            super(MimeTypeUtils.APPLICATION_JSON);
+            setStrictContentTypeMatch(true);
+        }
+
+        @Override
+        protected boolean supports(Class<?> clazz) {
+            return String.class == clazz;
+        }
+
+        @Override
+        protected Object convertFromInternal(Message<?> message, Class<?> targetClass, Object conversionHint) {
+            Object payload = message.getPayload();
+            return payload instanceof byte[] ? new String((byte[]) payload, StandardCharsets.UTF_8) : payload;
+        }
+
+        @Override
+        protected Object convertToInternal(Object payload, MessageHeaders headers, Object conversionHint) {
+            return ((String) payload).getBytes(StandardCharsets.UTF_8);
+        }
+    }
 }
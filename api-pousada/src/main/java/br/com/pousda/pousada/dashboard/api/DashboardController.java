@@ -3,6 +3,8 @@ package br.com.pousda.pousada.dashboard.api;
 import br.com.pousda.pousada.dashboard.application.DashboardService;
 import br.com.pousda.pousada.dashboard.domain.DashboardPeriodo;
 import br.com.pousda.pousada.dashboard.dto.DashboardResumoDTO;
+import br.com.pousda.pousada.dashboard.dto.MovimentacaoResumoDTO;
+import br.com.pousda.pousada.util.CursorPaginaDTO;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -21,4 +23,14 @@ public class DashboardController {
     ) {
         return dashboardService.getResumo(periodo);
     }
+
+    // Movimentações por cursor: passe proximoCursor da resposta anterior (ou movimentacoesProximoCursor do resumo)
+    @GetMapping("/movimentacoes")
+    @PreAuthorize("hasAnyRole('ADMIN','DEV')")
+    public CursorPaginaDTO<MovimentacaoResumoDTO> listarMovimentacoes(
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(defaultValue = "20") int tamanho
+    ) {
+        return dashboardService.listarMovimentacoes(cursor, tamanho);
+    }
 }
@@ -0,0 +1,140 @@
+package br.com.pousda.pousada.dashboard.application;
+
+import br.com.pousda.pousada.dashboard.domain.DashboardDadosAlteradosEvent;
+import br.com.pousda.pousada.dashboard.domain.DashboardPeriodo;
+import br.com.pousda.pousada.dashboard.dto.DashboardResumoDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Resumo do dashboard em memória, por (período, dia).
+ *
+ * - Single-flight: várias abas pedindo o mesmo período ao mesmo tempo esperam UM cálculo.
+ * - DashboardDadosAlteradosEvent descarta tudo na hora e de novo ao fim da transação que publicou,
+ *   para não guardar um cálculo feito no meio dela.
+ * - TTL curto como rede de segurança (jobs, outro nó, alteração direta no banco).
+ * - A virada do dia muda a chave, então o resumo de ontem nunca é servido hoje.
+ */
+@Slf4j
+@Component
+public class DashboardResumoCache {
+
+    private final Map<Chave, Entrada> entradas = new ConcurrentHashMap<>();
+    private final long ttlMillis;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter coalescidos;
+    private final Counter invalidacoes;
+
+    public DashboardResumoCache(MeterRegistry metrics,
+                                @Value("${app.dashboard.cache.ttl-segundos:60}") long ttlSegundos) {
+        this.ttlMillis = Duration.ofSeconds(Math.max(1, ttlSegundos)).toMillis();
+        this.hits = Counter.builder("dashboard.cache").tag("resultado", "hit").register(metrics);
+        this.misses = Counter.builder("dashboard.cache").tag("resultado", "miss").register(metrics);
+        this.coalescidos = Counter.builder("dashboard.cache").tag("resultado", "coalescido").register(metrics);
+        this.invalidacoes = Counter.builder("dashboard.cache.invalidacoes").register(metrics);
+    }
+
+    public DashboardResumoDTO obter(DashboardPeriodo periodo, LocalDate dia, Supplier<DashboardResumoDTO> calcular) {
+        Chave chave = new Chave(periodo, dia);
+
+        while (true) {
+            Entrada atual = entradas.get(chave);
+            if (atual != null && !atual.expirada(ttlMillis)) {
+                (atual.valor.isDone() ? hits : coalescidos).increment();
+                try {
+                    return atual.valor.join();
+                } catch (CompletionException e) {
+                    // o cálculo de quem chegou primeiro falhou: tenta de novo
+                    entradas.remove(chave, atual);
+                    continue;
+                }
+            }
+
+            Entrada nova = new Entrada();
+            boolean minha = atual == null
+                    ? entradas.putIfAbsent(chave, nova) == null
+                    : entradas.replace(chave, atual, nova);
+            if (!minha) continue;
+
+            misses.increment();
+            try {
+                DashboardResumoDTO dto = calcular.get();
+                nova.valor.complete(dto);
+                return dto;
+            } catch (RuntimeException e) {
+                entradas.remove(chave, nova);
+                nova.valor.completeExceptionally(e);
+                throw e;
+            }
+        }
+    }
+
+    @EventListener
+    public void onDadosAlterados(DashboardDadosAlteradosEvent ev) {
+        invalidar();
+        log.debug("[DASHBOARD] Cache descartado ({})", ev.getOrigem());
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    invalidar();
+                }
+            });
+        }
+    }
+
+    public void invalidar() {
+        entradas.clear();
+        invalidacoes.increment();
+    }
+
+    private static final class Entrada {
+        final CompletableFuture<DashboardResumoDTO> valor = new CompletableFuture<>();
+        final long criadaEm = System.currentTimeMillis();
+
+        boolean expirada(long ttlMillis) {
+            return System.currentTimeMillis() - criadaEm > ttlMillis;
+        }
+    }
+
+    private static final class Chave {
+        final DashboardPeriodo periodo;
+        final LocalDate dia;
+
+        Chave(DashboardPeriodo periodo, LocalDate dia) {
+            this.periodo = periodo;
+            this.dia = dia;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Chave)) return false;
+            Chave c = (Chave) o;
+            return periodo == c.periodo && dia.equals(c.dia);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(periodo, dia);
+        }
+    }
+}
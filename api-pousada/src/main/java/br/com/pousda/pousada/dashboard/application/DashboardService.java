@@ -1,23 +1,32 @@
 package br.com.pousda.pousada.dashboard.application;
 
 import br.com.pousda.pousada.dashboard.domain.DashboardPeriodo;
+import br.com.pousda.pousada.dashboard.domain.ResumoFinanceiroDia;
+import br.com.pousda.pousada.dashboard.domain.ResumoOcupacaoDia;
 import br.com.pousda.pousada.dashboard.dto.DashboardResumoDTO;
 import br.com.pousda.pousada.dashboard.dto.MovimentacaoResumoDTO;
 import br.com.pousda.pousada.dashboard.dto.SerieFinanceiraDiaDTO;
 import br.com.pousda.pousada.dashboard.dto.SerieOcupacaoDiaDTO;
-import br.com.pousda.pousada.financeiro.domain.enuns.TipoLancamento;
+import br.com.pousda.pousada.dashboard.infra.ResumoFinanceiroDiaRepository;
+import br.com.pousda.pousada.dashboard.infra.ResumoOcupacaoDiaRepository;
 import br.com.pousda.pousada.financeiro.infra.LancamentoFinanceiroRepository;
+import br.com.pousda.pousada.financeiro.infra.MovimentacaoResumoView;
 import br.com.pousda.pousada.hospedagens.infra.HospedagemRepository;
 import br.com.pousda.pousada.quartos.infra.QuartoRepository;
 import br.com.pousda.pousada.reservas.domain.StatusReserva;
 import br.com.pousda.pousada.reservas.infra.ReservaRepository;
 import br.com.pousda.pousada.usuarios.infra.UsuarioRepository;
+import br.com.pousda.pousada.util.CursorPaginaDTO;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -28,21 +37,38 @@ import java.util.stream.Collectors;
 public class DashboardService {
 
     private static final ZoneId ZONE = ZoneId.of("America/Sao_Paulo");
+    private static final int JANELA_MOVIMENTACOES_DIAS = 90;
+    private static final int MOVIMENTACOES_NO_RESUMO = 20;
+    private static final int TAMANHO_MAXIMO_PAGINA = 100;
 
     private final HospedagemRepository hospedagens;
     private final QuartoRepository quartos;
     private final ReservaRepository reservas;
     private final UsuarioRepository usuarios;
     private final LancamentoFinanceiroRepository lancamentos;
+    private final DashboardResumoCache cache;
+    private final ResumoDiarioService resumos;
+    private final ResumoFinanceiroDiaRepository resumoFinanceiro;
+    private final ResumoOcupacaoDiaRepository resumoOcupacao;
+    private final PlatformTransactionManager txManager;
 
-    @Transactional(readOnly = true)
+    /** Servido do DashboardResumoCache; só recalcula quando algo mudou (ou no TTL). */
     public DashboardResumoDTO getResumo(DashboardPeriodo periodo) {
+        final DashboardPeriodo p = periodo != null ? periodo : DashboardPeriodo.ULTIMOS_7_DIAS;
+        final LocalDate hoje = LocalDate.now(ZONE);
+
+        return cache.obter(p, hoje, () -> {
+            resumos.garantir(p.inicio(hoje), p.fim(hoje));
+            TransactionTemplate tx = new TransactionTemplate(txManager);
+            tx.setReadOnly(true);
+            return tx.execute(s -> calcularResumo(p, hoje));
+        });
+    }
 
-        if (periodo == null) periodo = DashboardPeriodo.ULTIMOS_7_DIAS;
+    private DashboardResumoDTO calcularResumo(DashboardPeriodo periodo, LocalDate hoje) {
 
         DashboardResumoDTO dto = new DashboardResumoDTO();
 
-        LocalDate hoje = LocalDate.now(ZONE);
         LocalDate inicio = periodo.inicio(hoje);
         LocalDate fim = periodo.fim(hoje);
 
@@ -69,60 +95,49 @@ public class DashboardService {
         dto.setUsuariosAtivos(usuarios.countByAtivoTrue());
 
         // ======================
-        // FINANCEIRO (FILTRADO POR PERÍODO) SEM MEXER NO REPO
+        // FINANCEIRO (FILTRADO POR PERÍODO) — lido de resumo_financeiro_dia
         // ======================
-        // Como você NÃO quer criar métodos no LancamentoFinanceiroRepository,
-        // vamos calcular pelas linhas do totalPorDiaEntre(inicio, fim):
-        // row[0]=LocalDate, row[1]=TipoLancamento, row[2]=Double total
-
-        List<Object[]> rowsPeriodo = lancamentos.totalPorDiaEntre(inicio, fim);
+        List<ResumoFinanceiroDia> diasFin = resumoFinanceiro.findByDiaBetweenOrderByDia(inicio, fim);
 
         double entradasPeriodo = 0.0;
         double saidasPeriodo = 0.0;
-
-        for (Object[] row : rowsPeriodo) {
-            TipoLancamento tipo = (TipoLancamento) row[1];
-            Double total = (Double) row[2];
-            double v = total != null ? total : 0.0;
-
-            if (tipo == TipoLancamento.ENTRADA) {
-                entradasPeriodo += v;
-            } else {
-                saidasPeriodo += v;
-            }
+        double entradasPref = 0.0;
+        double saidasPref = 0.0;
+
+        for (ResumoFinanceiroDia d : diasFin) {
+            entradasPeriodo += d.getEntradas();
+            saidasPeriodo += d.getSaidas();
+            entradasPref += d.getEntradasPrefeitura();
+            saidasPref += d.getSaidasPrefeitura();
         }
 
         // Saldo do período = entradas - saídas
         double saldoPeriodo = entradasPeriodo - saidasPeriodo;
-
-        // Mantém a estrutura do seu dashboard:
-        // saldoAtual = saldo do período
-        // prefeitura e demais (se quiser filtrar prefeitura depois, adiciona query no repo — aqui não mexe)
         dto.setSaldoAtual(saldoPeriodo);
 
-        // Por enquanto (sem mexer no repo), mantém prefeitura separado como 0
-        // e demais clientes = saldo total do período.
-        // Se você já tiver formas de separar prefeitura no repo atual, me manda os métodos que existem e eu adapto.
-        double saldoPref = 0.0;
+        // prefeitura = lançamentos com prefeitura = true (entradas de hospedagens PREFEITURA)
+        double saldoPref = entradasPref - saidasPref;
         dto.setSaldoPrefeitura(saldoPref);
         dto.setSaldoDemaisClientes(saldoPeriodo - saldoPref);
 
-        // Recebimentos do período:
-        // (mantém os 3 campos, mas sem separar origem sem métodos no repo)
-        dto.setRecebimentosPrefeitura(0.0);
+        // Recebimentos do período (corporativo ainda não é separado no lançamento)
+        dto.setRecebimentosPrefeitura(entradasPref);
         dto.setRecebimentosCorporativos(0.0);
-        dto.setRecebimentosComuns(entradasPeriodo);
+        dto.setRecebimentosComuns(entradasPeriodo - entradasPref);
 
         // ======================
         // MOVIMENTAÇÕES (FORA DO FILTRO) -> sempre últimos 90 dias (como você quer)
         // ======================
-        LocalDate movInicio = hoje.minusDays(89);
-        dto.setUltimasMovimentacoes(buscarMovimentacoesPeriodo(movInicio, hoje));
+        // só a primeira página; as seguintes vêm de /api/dashboard/movimentacoes?cursor=
+        LocalDate movInicio = hoje.minusDays(JANELA_MOVIMENTACOES_DIAS - 1);
+        CursorPaginaDTO<MovimentacaoResumoDTO> movs = paginaMovimentacoes(movInicio, null, MOVIMENTACOES_NO_RESUMO);
+        dto.setUltimasMovimentacoes(movs.getConteudo());
+        dto.setMovimentacoesProximoCursor(movs.getProximoCursor());
 
         // ======================
         // SÉRIES (FILTRADAS)
         // ======================
-        List<SerieFinanceiraDiaDTO> serieFin = montarSerieFinanceiro(inicio, fim);
+        List<SerieFinanceiraDiaDTO> serieFin = montarSerieFinanceiro(diasFin, inicio, fim);
         List<SerieOcupacaoDiaDTO> serieOcup = montarSerieOcupacao(inicio, fim);
 
         dto.setSerieFinanceiro(serieFin);
@@ -162,45 +177,61 @@ public class DashboardService {
         return taxa;
     }
 
-    private List<MovimentacaoResumoDTO> buscarMovimentacoesPeriodo(LocalDate inicio, LocalDate fim) {
-        return lancamentos
-                .findByDataBetweenAndExcluidoEmIsNullOrderByDataHoraDesc(inicio, fim)
-                .stream()
-                .map(l -> {
-                    MovimentacaoResumoDTO dto = new MovimentacaoResumoDTO();
-                    dto.setId(l.getId());
-                    dto.setDataHora(l.getDataHora());
-                    dto.setOrigem(l.getOrigem().name());
-                    dto.setTipo(l.getTipo().name());
-                    dto.setValor(l.getValor());
-                    dto.setDescricao(l.getDescricao());
-                    return dto;
-                })
+    /**
+     * Movimentações dos últimos 90 dias por cursor (keyset em dataHora desc, id desc).
+     * cursor = proximoCursor da página anterior (ou do resumo); null na primeira página.
+     */
+    @Transactional(readOnly = true)
+    public CursorPaginaDTO<MovimentacaoResumoDTO> listarMovimentacoes(Long cursor, int tamanho) {
+        LocalDate hoje = LocalDate.now(ZONE);
+        int t = Math.min(Math.max(1, tamanho), TAMANHO_MAXIMO_PAGINA);
+        return paginaMovimentacoes(hoje.minusDays(JANELA_MOVIMENTACOES_DIAS - 1), cursor, t);
+    }
+
+    private CursorPaginaDTO<MovimentacaoResumoDTO> paginaMovimentacoes(LocalDate desde, Long cursor, int tamanho) {
+        // pede um a mais só para saber se existe próxima página
+        PageRequest limite = PageRequest.of(0, tamanho + 1);
+
+        List<MovimentacaoResumoView> linhas;
+        if (cursor == null) {
+            linhas = lancamentos.findMovimentacoesDesde(desde, limite);
+        } else {
+            LocalDateTime cursorDataHora = lancamentos.findDataHoraById(cursor).orElse(null);
+            if (cursorDataHora == null) return new CursorPaginaDTO<>(List.of(), null, false);
+            linhas = lancamentos.findMovimentacoesDesdeApos(desde, cursorDataHora, cursor, limite);
+        }
+
+        boolean temMais = linhas.size() > tamanho;
+        List<MovimentacaoResumoView> pagina = temMais ? linhas.subList(0, tamanho) : linhas;
+
+        List<MovimentacaoResumoDTO> conteudo = pagina.stream()
+                .map(this::toMovimentacaoDTO)
                 .collect(Collectors.toList());
+
+        Long proximo = temMais ? pagina.get(pagina.size() - 1).getId() : null;
+        return new CursorPaginaDTO<>(conteudo, proximo, temMais);
     }
 
-    private List<SerieFinanceiraDiaDTO> montarSerieFinanceiro(LocalDate inicio, LocalDate fim) {
+    private MovimentacaoResumoDTO toMovimentacaoDTO(MovimentacaoResumoView l) {
+        MovimentacaoResumoDTO dto = new MovimentacaoResumoDTO();
+        dto.setId(l.getId());
+        dto.setDataHora(l.getDataHora());
+        dto.setOrigem(l.getOrigem() != null ? l.getOrigem().name() : null);
+        dto.setTipo(l.getTipo() != null ? l.getTipo().name() : null);
+        dto.setValor(l.getValor());
+        dto.setDescricao(l.getDescricao());
+        return dto;
+    }
 
-        List<Object[]> rows = lancamentos.totalPorDiaEntre(inicio, fim);
-        Map<LocalDate, SerieFinanceiraDiaDTO> map = new HashMap<>();
+    private List<SerieFinanceiraDiaDTO> montarSerieFinanceiro(List<ResumoFinanceiroDia> dias,
+                                                               LocalDate inicio, LocalDate fim) {
 
-        for (Object[] row : rows) {
-            LocalDate data = (LocalDate) row[0];
-            TipoLancamento tipo = (TipoLancamento) row[1];
-            Double total = (Double) row[2];
-
-            SerieFinanceiraDiaDTO dto = map.get(data);
-            if (dto == null) {
-                dto = novoFinanceiro(data);
-                map.put(data, dto);
-            }
-
-            double v = (total != null ? total : 0.0);
-            if (tipo == TipoLancamento.ENTRADA) {
-                dto.setTotalEntradas(dto.getTotalEntradas() + v);
-            } else {
-                dto.setTotalSaidas(dto.getTotalSaidas() + v);
-            }
+        Map<LocalDate, SerieFinanceiraDiaDTO> map = new HashMap<>();
+        for (ResumoFinanceiroDia d : dias) {
+            SerieFinanceiraDiaDTO dto = novoFinanceiro(d.getDia());
+            dto.setTotalEntradas(d.getEntradas());
+            dto.setTotalSaidas(d.getSaidas());
+            map.put(d.getDia(), dto);
         }
 
         List<SerieFinanceiraDiaDTO> lista = new ArrayList<>();
@@ -223,20 +254,15 @@ public class DashboardService {
 
     private List<SerieOcupacaoDiaDTO> montarSerieOcupacao(LocalDate inicio, LocalDate fim) {
 
-        List<Object[]> rows = hospedagens.ocupacaoPorDiaEntre(inicio, fim);
         Map<LocalDate, SerieOcupacaoDiaDTO> map = new HashMap<>();
 
-        for (Object[] row : rows) {
-            LocalDate data = (LocalDate) row[0];
-            Long qtdHosp = (Long) row[1];
-            Long qtdRes = (Long) row[2];
-
+        for (ResumoOcupacaoDia d : resumoOcupacao.findByDiaBetweenOrderByDia(inicio, fim)) {
             SerieOcupacaoDiaDTO dto = new SerieOcupacaoDiaDTO();
-            dto.setData(data);
-            dto.setQtdHospedagens(qtdHosp != null ? qtdHosp : 0L);
-            dto.setQtdReservas(qtdRes != null ? qtdRes : 0L);
+            dto.setData(d.getDia());
+            dto.setQtdHospedagens(d.getQuartosOcupados());
+            dto.setQtdReservas(d.getReservasPendentes());
 
-            map.put(data, dto);
+            map.put(d.getDia(), dto);
         }
 
         List<SerieOcupacaoDiaDTO> lista = new ArrayList<>();
@@ -0,0 +1,73 @@
+package br.com.pousda.pousada.dashboard.application;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * Ocupação por dia a partir de intervalos [início, fim) — varredura com array de diferenças:
+ * +1 no dia em que o intervalo entra no período, -1 no dia seguinte ao último, soma acumulada.
+ * Custo O(intervalos + dias), independente do tamanho do período.
+ */
+final class OcupacaoDiaria {
+
+    final LocalDate inicio;
+    final long[] quartosOcupados;
+    final long[] reservasPendentes;
+
+    private OcupacaoDiaria(LocalDate inicio, int dias) {
+        this.inicio = inicio;
+        this.quartosOcupados = new long[dias];
+        this.reservasPendentes = new long[dias];
+    }
+
+    int dias() {
+        return quartosOcupados.length;
+    }
+
+    LocalDate dia(int i) {
+        return inicio.plusDays(i);
+    }
+
+    /** @param intervalos linhas de HospedagemRepository.intervalosOcupacaoEntre ([0]=H|R, [1]=início, [2]=fim exclusivo) */
+    static OcupacaoDiaria calcular(List<Object[]> intervalos, LocalDate inicio, LocalDate fim) {
+        int n = (int) ChronoUnit.DAYS.between(inicio, fim) + 1;
+        OcupacaoDiaria o = new OcupacaoDiaria(inicio, n);
+
+        long[] difH = new long[n + 1];
+        long[] difR = new long[n + 1];
+
+        for (Object[] row : intervalos) {
+            LocalDate ini = data(row[1]);
+            LocalDate ate = data(row[2]);
+            if (ini == null || ate == null) continue;
+
+            // recorta no período: [a, b) em índices de dia
+            long a = Math.max(0, ChronoUnit.DAYS.between(inicio, ini));
+            long b = Math.min(n, ChronoUnit.DAYS.between(inicio, ate));
+            if (a >= b) continue;
+
+            long[] dif = "R".equals(String.valueOf(row[0])) ? difR : difH;
+            dif[(int) a]++;
+            dif[(int) b]--;
+        }
+
+        long h = 0, r = 0;
+        for (int i = 0; i < n; i++) {
+            h += difH[i];
+            r += difR[i];
+            o.quartosOcupados[i] = h;
+            o.reservasPendentes[i] = r;
+        }
+        return o;
+    }
+
+    private static LocalDate data(Object v) {
+        if (v == null) return null;
+        if (v instanceof LocalDate) return (LocalDate) v;
+        if (v instanceof Date) return ((Date) v).toLocalDate();
+        if (v instanceof java.util.Date) return new Date(((java.util.Date) v).getTime()).toLocalDate();
+        return LocalDate.parse(v.toString());
+    }
+}
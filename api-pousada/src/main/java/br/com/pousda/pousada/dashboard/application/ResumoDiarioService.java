@@ -0,0 +1,273 @@
+package br.com.pousda.pousada.dashboard.application;
+
+import br.com.pousda.pousada.dashboard.domain.DashboardDadosAlteradosEvent;
+import br.com.pousda.pousada.dashboard.infra.ResumoFinanceiroDiaRepository;
+import br.com.pousda.pousada.dashboard.infra.ResumoOcupacaoDiaRepository;
+import br.com.pousda.pousada.financeiro.infra.LancamentoFinanceiroRepository;
+import br.com.pousda.pousada.hospedagens.infra.HospedagemRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * Resumos diários do dashboard (resumo_financeiro_dia e resumo_ocupacao_dia), também usados
+ * para o saldo do caixa (saldos).
+ *
+ * - Cada DashboardDadosAlteradosEvent com período recalcula só os dias afetados, depois do
+ *   commit de quem publicou (transação própria; a alteração original já está gravada).
+ * - O recálculo é idempotente (refaz o dia a partir das tabelas de origem) e serializado por
+ *   advisory lock, então dois commits concorrentes nunca deixam o resumo com o estado antigo.
+ * - Financeiro: o dia é marcado sujo ainda na transação do lançamento. Se o recálculo pós-commit
+ *   falhar, a próxima leitura (garantir, saldos) vê a marca e recalcula antes de somar.
+ * - Ocupação: se o recálculo falhar, o dia fica defasado até o backfill (ResumoDiarioBackfillJob).
+ * - Ocupação: uma consulta traz os intervalos [entrada, saída) que tocam o período e a contagem
+ *   por dia sai de uma varredura em memória (OcupacaoDiaria), gravada em lote.
+ * - Dias ainda sem linha são preenchidos na hora da leitura (garantir).
+ */
+@Slf4j
+@Service
+public class ResumoDiarioService {
+
+    // chaves de pg_advisory_xact_lock (uma por tabela)
+    private static final long LOCK_FINANCEIRO = 7_301_601L;
+    private static final long LOCK_OCUPACAO = 7_301_602L;
+
+    private static final ZoneId ZONE_BR = ZoneId.of("America/Bahia");
+
+    private static final String UPSERT_OCUPACAO =
+            "INSERT INTO resumo_ocupacao_dia (dia, quartos_ocupados, reservas_pendentes, atualizado_em) " +
+                    "VALUES (?, ?, ?, ?) " +
+                    "ON CONFLICT (dia) DO UPDATE SET quartos_ocupados = EXCLUDED.quartos_ocupados, " +
+                    "reservas_pendentes = EXCLUDED.reservas_pendentes, atualizado_em = EXCLUDED.atualizado_em";
+
+    /** Evita recálculo acidental de décadas por uma data digitada errada. */
+    private static final long MAX_DIAS = 3 * 366;
+
+    private final ResumoFinanceiroDiaRepository financeiro;
+    private final ResumoOcupacaoDiaRepository ocupacao;
+    private final HospedagemRepository hospedagens;
+    private final LancamentoFinanceiroRepository lancamentos;
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate novaTx;
+    private final TransactionTemplate leitura;
+
+    private final Counter recalculos;
+    private final Counter erros;
+
+    public ResumoDiarioService(ResumoFinanceiroDiaRepository financeiro,
+                               ResumoOcupacaoDiaRepository ocupacao,
+                               HospedagemRepository hospedagens,
+                               LancamentoFinanceiroRepository lancamentos,
+                               JdbcTemplate jdbc,
+                               PlatformTransactionManager txManager,
+                               MeterRegistry metrics) {
+        this.financeiro = financeiro;
+        this.ocupacao = ocupacao;
+        this.hospedagens = hospedagens;
+        this.lancamentos = lancamentos;
+        this.jdbc = jdbc;
+        this.novaTx = new TransactionTemplate(txManager);
+        this.novaTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.leitura = new TransactionTemplate(txManager);
+        this.leitura.setReadOnly(true);
+        this.recalculos = metrics.counter("dashboard.resumo.recalculos");
+        this.erros = metrics.counter("dashboard.resumo.erros");
+    }
+
+    /* ============================ EVENTOS ============================ */
+
+    // afterCommit roda antes do afterCompletion em que o DashboardResumoCache descarta o resumo
+    @EventListener
+    public void onDadosAlterados(DashboardDadosAlteradosEvent ev) {
+        if (!ev.temPeriodo()) return;
+
+        final boolean fin = "FINANCEIRO".equals(ev.getOrigem());
+        final boolean ocup = "HOSPEDAGEM".equals(ev.getOrigem()) || "RESERVA".equals(ev.getOrigem());
+        if (!fin && !ocup) return;
+
+        final LocalDate de = ev.getDe();
+        final LocalDate ate = ev.getAte();
+
+        // mesma transação do lançamento: se o commit acontecer, a marca vai junto
+        if (fin && valido(de, ate) && TransactionSynchronizationManager.isActualTransactionActive()) {
+            financeiro.marcarSujos(de, ate);
+        }
+
+        Runnable recalcular = () -> {
+            try {
+                if (fin) recalcularFinanceiro(de, ate);
+                if (ocup) recalcularOcupacao(de, ate);
+            } catch (Exception e) {
+                erros.increment();
+                log.warn("[DASHBOARD] Falha ao recalcular resumo diário {} [{}..{}]: {}",
+                        ev.getOrigem(), de, ate, e.getMessage());
+            }
+        };
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    recalcular.run();
+                }
+            });
+        } else {
+            recalcular.run();
+        }
+    }
+
+    /* ============================ RECÁLCULO ============================ */
+
+    public int recalcularFinanceiro(LocalDate de, LocalDate ate) {
+        if (!valido(de, ate)) return 0;
+        Integer dias = novaTx.execute(s -> {
+            travar(LOCK_FINANCEIRO);
+            // cria o que falta e espera quem ainda segura a linha (lançamento sem commit), para a
+            // soma abaixo já enxergar esse lançamento
+            financeiro.marcarSujos(de, ate);
+            return financeiro.recalcular(de, ate);
+        });
+        recalculos.increment();
+        return dias != null ? dias : 0;
+    }
+
+    public int recalcularOcupacao(LocalDate de, LocalDate ate) {
+        if (!valido(de, ate)) return 0;
+        Integer dias = novaTx.execute(s -> {
+            travar(LOCK_OCUPACAO);
+            OcupacaoDiaria o = OcupacaoDiaria.calcular(hospedagens.intervalosOcupacaoEntre(de, ate), de, ate);
+            gravarOcupacao(o);
+            return o.dias();
+        });
+        recalculos.increment();
+        return dias != null ? dias : 0;
+    }
+
+    /** Preenche o período se faltar algum dia (primeiro acesso antes do backfill, dia novo). */
+    public void garantir(LocalDate inicio, LocalDate fim) {
+        garantirFinanceiro(inicio, fim);
+        long esperados = ChronoUnit.DAYS.between(inicio, fim) + 1;
+        try {
+            if (ocupacao.countByDiaBetween(inicio, fim) < esperados) recalcularOcupacao(inicio, fim);
+        } catch (Exception e) {
+            erros.increment();
+            log.warn("[DASHBOARD] Falha ao preencher resumo diário [{}..{}]: {}", inicio, fim, e.getMessage());
+        }
+    }
+
+    /**
+     * resumo_financeiro_dia confiável até fim: completa dias faltando em [inicio, fim] e recalcula
+     * os marcados como sujos. false = não deu; quem lê decide o que fazer.
+     */
+    public boolean garantirFinanceiro(LocalDate inicio, LocalDate fim) {
+        try {
+            long esperados = ChronoUnit.DAYS.between(inicio, fim) + 1;
+            if (financeiro.countByDiaBetween(inicio, fim) < esperados) recalcularFinanceiroPorMes(inicio, fim);
+
+            Object[] suja = primeira(financeiro.faixaSuja(fim));
+            if (suja != null && suja[0] != null) {
+                int dias = recalcularFinanceiroPorMes(data(suja[0]), data(suja[1]));
+                log.info("[DASHBOARD] Resumo financeiro sujo recalculado na leitura: {} dias", dias);
+            }
+            return true;
+        } catch (Exception e) {
+            erros.increment();
+            log.warn("[DASHBOARD] Falha ao preencher resumo financeiro [{}..{}]: {}", inicio, fim, e.getMessage());
+            return false;
+        }
+    }
+
+    /* ============================ SALDO DO CAIXA ============================ */
+
+    /**
+     * [geral, prefeitura]: soma dos dias resumidos até hoje + lançamentos com data futura.
+     * null = resumo indisponível; quem chama soma direto de lancamento_financeiro.
+     */
+    public double[] saldos() {
+        LocalDate hoje = LocalDate.now(ZONE_BR);
+        LocalDate primeiro = lancamentos.menorData();
+        if (primeiro != null && !primeiro.isAfter(hoje) && !garantirFinanceiro(primeiro, hoje)) return null;
+
+        return leitura.execute(s -> {
+            Object[] resumidos = primeira(financeiro.somarSaldosAte(hoje));
+            Object[] futuros = primeira(lancamentos.calcularSaldosDesde(hoje.plusDays(1)));
+            return new double[]{
+                    numero(resumidos, 0) + numero(futuros, 0),
+                    numero(resumidos, 1) + numero(futuros, 1)
+            };
+        });
+    }
+
+    private void gravarOcupacao(OcupacaoDiaria o) {
+        Timestamp agora = Timestamp.valueOf(LocalDateTime.now());
+        jdbc.batchUpdate(UPSERT_OCUPACAO, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                ps.setObject(1, o.dia(i));
+                ps.setLong(2, o.quartosOcupados[i]);
+                ps.setLong(3, o.reservasPendentes[i]);
+                ps.setTimestamp(4, agora);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return o.dias();
+            }
+        });
+    }
+
+    // um mês por transação, como o backfill (períodos longos passariam de MAX_DIAS)
+    private int recalcularFinanceiroPorMes(LocalDate inicio, LocalDate fim) {
+        int dias = 0;
+        for (LocalDate ini = inicio; !ini.isAfter(fim); ini = ini.plusMonths(1).withDayOfMonth(1)) {
+            LocalDate ate = ini.withDayOfMonth(ini.lengthOfMonth());
+            dias += recalcularFinanceiro(ini, ate.isAfter(fim) ? fim : ate);
+        }
+        return dias;
+    }
+
+    private void travar(long chave) {
+        jdbc.query("SELECT pg_advisory_xact_lock(?)", rs -> null, chave);
+    }
+
+    private boolean valido(LocalDate de, LocalDate ate) {
+        if (de == null || ate == null || ate.isBefore(de)) return false;
+        if (ChronoUnit.DAYS.between(de, ate) > MAX_DIAS) {
+            log.warn("[DASHBOARD] Recálculo de resumo ignorado: período muito longo [{}..{}]", de, ate);
+            return false;
+        }
+        return true;
+    }
+
+    private static Object[] primeira(List<Object[]> rows) {
+        return rows == null || rows.isEmpty() ? null : rows.get(0);
+    }
+
+    private static double numero(Object[] row, int i) {
+        return row == null || row[i] == null ? 0.0 : ((Number) row[i]).doubleValue();
+    }
+
+    private static LocalDate data(Object v) {
+        if (v instanceof LocalDate) return (LocalDate) v;
+        if (v instanceof java.sql.Date) return ((java.sql.Date) v).toLocalDate();
+        return LocalDate.parse(v.toString());
+    }
+}
@@ -0,0 +1,63 @@
+package br.com.pousda.pousada.dashboard.application.jobs;
+
+import br.com.pousda.pousada.dashboard.application.ResumoDiarioService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+/**
+ * Reconstrói os resumos diários do dashboard a partir das tabelas de origem:
+ * no startup e toda madrugada, de (hoje - dias-atras) até (hoje + dias-frente), um mês por vez.
+ * Cobre o que o recálculo por evento não vê (outro nó, alteração direta no banco, falha no afterCommit).
+ * A passada noturna fica fora do horário da recepção; a do startup evita que um nó novo sirva resumos vazios.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.dashboard.resumo.backfill", havingValue = "true", matchIfMissing = true)
+public class ResumoDiarioBackfillJob {
+
+    private static final ZoneId ZONE = ZoneId.of("America/Sao_Paulo");
+
+    private final ResumoDiarioService resumos;
+    private final int diasAtras;
+    private final int diasFrente;
+
+    public ResumoDiarioBackfillJob(ResumoDiarioService resumos,
+                                   @Value("${app.dashboard.resumo.dias-atras:400}") int diasAtras,
+                                   @Value("${app.dashboard.resumo.dias-frente:60}") int diasFrente) {
+        this.resumos = resumos;
+        this.diasAtras = Math.max(0, diasAtras);
+        this.diasFrente = Math.max(0, diasFrente);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void noStartup() {
+        reconstruir();
+    }
+
+    @Scheduled(cron = "0 40 3 * * *", zone = "America/Sao_Paulo")
+    public void reconstruir() {
+        LocalDate hoje = LocalDate.now(ZONE);
+        LocalDate fim = hoje.plusDays(diasFrente);
+        int dias = 0;
+
+        try {
+            for (LocalDate ini = hoje.minusDays(diasAtras); !ini.isAfter(fim); ini = ini.plusMonths(1)) {
+                LocalDate ate = ini.plusMonths(1).minusDays(1);
+                if (ate.isAfter(fim)) ate = fim;
+                dias += resumos.recalcularFinanceiro(ini, ate);
+                resumos.recalcularOcupacao(ini, ate);
+            }
+            log.info("[DASHBOARD] Resumos diários reconstruídos: {} dias [{}..{}]", dias, hoje.minusDays(diasAtras), fim);
+        } catch (Exception e) {
+            log.warn("[DASHBOARD] Falha ao reconstruir resumos diários: {}", e.getMessage());
+        }
+    }
+}
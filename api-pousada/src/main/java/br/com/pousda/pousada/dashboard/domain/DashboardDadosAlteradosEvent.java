@@ -0,0 +1,40 @@
+package br.com.pousda.pousada.dashboard.domain;
+
+import lombok.Getter;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Publicado por quem altera dados que aparecem no dashboard (lançamentos, hospedagens,
+ * reservas, quartos). O cache do resumo é descartado ao receber.
+ *
+ * de/ate: dias afetados (menor e maior data informada, nulls ignorados), usados para
+ * recalcular só esses dias nos resumos diários. Sem datas, só o cache é descartado.
+ */
+@Getter
+public class DashboardDadosAlteradosEvent {
+
+    /** FINANCEIRO, HOSPEDAGEM, RESERVA ou QUARTO */
+    private final String origem;
+    private final LocalDate de;
+    private final LocalDate ate;
+
+    public DashboardDadosAlteradosEvent(String origem) {
+        this.origem = origem;
+        this.de = null;
+        this.ate = null;
+    }
+
+    /** Ex.: hospedagem editada -> (entrada, saída antiga, saída nova). */
+    public DashboardDadosAlteradosEvent(String origem, LocalDate... dias) {
+        this.origem = origem;
+        this.de = dias == null ? null : Arrays.stream(dias).filter(Objects::nonNull).min(LocalDate::compareTo).orElse(null);
+        this.ate = dias == null ? null : Arrays.stream(dias).filter(Objects::nonNull).max(LocalDate::compareTo).orElse(null);
+    }
+
+    public boolean temPeriodo() {
+        return de != null;
+    }
+}
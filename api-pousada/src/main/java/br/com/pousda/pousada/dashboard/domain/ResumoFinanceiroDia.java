@@ -0,0 +1,43 @@
+package br.com.pousda.pousada.dashboard.domain;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import javax.persistence.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Totais do financeiro por dia (lançamentos não excluídos, pela coluna data).
+ * Mantido pelo ResumoDiarioService; o dashboard e o saldo do caixa leem daqui em vez de somar
+ * lancamento_financeiro.
+ */
+@Entity
+@Table(name = "resumo_financeiro_dia")
+@Getter @Setter @NoArgsConstructor
+public class ResumoFinanceiroDia {
+
+    @Id
+    @Column(name = "dia", columnDefinition = "DATE")
+    private LocalDate dia;
+
+    @Column(nullable = false)
+    private double entradas;
+
+    @Column(nullable = false)
+    private double saidas;
+
+    @Column(name = "entradas_prefeitura", nullable = false)
+    private double entradasPrefeitura;
+
+    @Column(name = "saidas_prefeitura", nullable = false)
+    private double saidasPrefeitura;
+
+    /** Marcado na mesma transação do lançamento; enquanto true, quem lê recalcula o dia antes. */
+    @Column(nullable = false, columnDefinition = "BOOLEAN NOT NULL DEFAULT FALSE")
+    private boolean sujo;
+
+    @Column(name = "atualizado_em")
+    private LocalDateTime atualizadoEm;
+}
@@ -0,0 +1,32 @@
+package br.com.pousda.pousada.dashboard.domain;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import javax.persistence.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Ocupação por dia: hospedagens ativas com entrada <= dia < saída (quartos ocupados naquele dia)
+ * e reservas PENDENTES com entrada no dia. Mantido pelo ResumoDiarioService.
+ */
+@Entity
+@Table(name = "resumo_ocupacao_dia")
+@Getter @Setter @NoArgsConstructor
+public class ResumoOcupacaoDia {
+
+    @Id
+    @Column(name = "dia", columnDefinition = "DATE")
+    private LocalDate dia;
+
+    @Column(name = "quartos_ocupados", nullable = false)
+    private long quartosOcupados;
+
+    @Column(name = "reservas_pendentes", nullable = false)
+    private long reservasPendentes;
+
+    @Column(name = "atualizado_em")
+    private LocalDateTime atualizadoEm;
+}
@@ -30,8 +30,10 @@ public class DashboardResumoDTO {
 
     private Double saidasTotal; // ✅ para o card de saídas (filtrado)
 
-    // Últimas movimentações (SEMPRE últimos 90 dias)
+    // Últimas movimentações (SEMPRE últimos 90 dias) — só a primeira página;
+    // as seguintes em GET /api/dashboard/movimentacoes?cursor={movimentacoesProximoCursor}
     private List<MovimentacaoResumoDTO> ultimasMovimentacoes;
+    private Long movimentacoesProximoCursor;
 
     // Séries (FILTRADAS POR PERÍODO)
     private List<SerieFinanceiraDiaDTO> serieFinanceiro;
@@ -0,0 +1,62 @@
+package br.com.pousda.pousada.dashboard.infra;
+
+import br.com.pousda.pousada.dashboard.domain.ResumoFinanceiroDia;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface ResumoFinanceiroDiaRepository extends JpaRepository<ResumoFinanceiroDia, LocalDate> {
+
+    List<ResumoFinanceiroDia> findByDiaBetweenOrderByDia(LocalDate inicio, LocalDate fim);
+
+    long countByDiaBetween(LocalDate inicio, LocalDate fim);
+
+    /**
+     * Marca [inicio, fim] como sujo, criando o dia se faltar. Roda na transação de quem grava o
+     * lançamento: o lock de linha também faz um recálculo concorrente esperar esse commit.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO resumo_financeiro_dia " +
+            "(dia, entradas, saidas, entradas_prefeitura, saidas_prefeitura, sujo, atualizado_em) " +
+            "SELECT CAST(g AS date), 0, 0, 0, 0, true, now() " +
+            "FROM generate_series(CAST(:inicio AS date), CAST(:fim AS date), interval '1 day') g " +
+            "ON CONFLICT (dia) DO UPDATE SET sujo = true",
+            nativeQuery = true)
+    int marcarSujos(@Param("inicio") LocalDate inicio, @Param("fim") LocalDate fim);
+
+    /** [0]=menor, [1]=maior dia sujo até :ate (nulos se não houver). */
+    @Query(value = "SELECT MIN(dia), MAX(dia) FROM resumo_financeiro_dia " +
+            "WHERE sujo = true AND dia <= :ate", nativeQuery = true)
+    List<Object[]> faixaSuja(@Param("ate") LocalDate ate);
+
+    /** [0]=saldo geral, [1]=saldo prefeitura dos dias até :ate (inclusive). */
+    @Query(value = "SELECT COALESCE(SUM(entradas - saidas), 0), " +
+            "COALESCE(SUM(entradas_prefeitura - saidas_prefeitura), 0) " +
+            "FROM resumo_financeiro_dia WHERE dia <= :ate", nativeQuery = true)
+    List<Object[]> somarSaldosAte(@Param("ate") LocalDate ate);
+
+    /** Recalcula [inicio, fim] a partir de lancamento_financeiro; dias sem lançamento ficam zerados. */
+    @Modifying
+    @Query(value = "INSERT INTO resumo_financeiro_dia " +
+            "(dia, entradas, saidas, entradas_prefeitura, saidas_prefeitura, sujo, atualizado_em) " +
+            "SELECT d.dia, " +
+            "  COALESCE(SUM(CASE WHEN l.tipo = 'ENTRADA' THEN l.valor END), 0), " +
+            "  COALESCE(SUM(CASE WHEN l.tipo = 'SAIDA' THEN l.valor END), 0), " +
+            "  COALESCE(SUM(CASE WHEN l.tipo = 'ENTRADA' AND l.prefeitura = true THEN l.valor END), 0), " +
+            "  COALESCE(SUM(CASE WHEN l.tipo = 'SAIDA' AND l.prefeitura = true THEN l.valor END), 0), " +
+            "  false, now() " +
+            "FROM (SELECT CAST(g AS date) AS dia " +
+            "      FROM generate_series(CAST(:inicio AS date), CAST(:fim AS date), interval '1 day') g) d " +
+            "LEFT JOIN lancamento_financeiro l ON l.data = d.dia AND l.excluido_em IS NULL " +
+            "GROUP BY d.dia " +
+            "ON CONFLICT (dia) DO UPDATE SET " +
+            "  entradas = EXCLUDED.entradas, saidas = EXCLUDED.saidas, " +
+            "  entradas_prefeitura = EXCLUDED.entradas_prefeitura, saidas_prefeitura = EXCLUDED.saidas_prefeitura, " +
+            "  sujo = false, atualizado_em = EXCLUDED.atualizado_em",
+            nativeQuery = true)
+    int recalcular(@Param("inicio") LocalDate inicio, @Param("fim") LocalDate fim);
+}
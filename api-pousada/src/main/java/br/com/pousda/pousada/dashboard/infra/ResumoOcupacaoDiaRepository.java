@@ -0,0 +1,14 @@
+package br.com.pousda.pousada.dashboard.infra;
+
+import br.com.pousda.pousada.dashboard.domain.ResumoOcupacaoDia;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface ResumoOcupacaoDiaRepository extends JpaRepository<ResumoOcupacaoDia, LocalDate> {
+
+    List<ResumoOcupacaoDia> findByDiaBetweenOrderByDia(LocalDate inicio, LocalDate fim);
+
+    long countByDiaBetween(LocalDate inicio, LocalDate fim);
+}
@@ -1,5 +1,7 @@
 package br.com.pousda.pousada.financeiro.application;
 
+import br.com.pousda.pousada.dashboard.application.ResumoDiarioService;
+import br.com.pousda.pousada.dashboard.domain.DashboardDadosAlteradosEvent;
 import br.com.pousda.pousada.exception.HospedagemNaoEncontradaException;
 import br.com.pousda.pousada.exception.OperacaoNaoPermitidaException;
 import br.com.pousda.pousada.exception.ValorInvalidoException;
@@ -15,9 +17,12 @@ import br.com.pousda.pousada.hospedagens.infra.HospedagemRepository;
 import br.com.pousda.pousada.notificacoes.application.UsersQueryPort;
 import br.com.pousda.pousada.notificacoes.application.facade.NotifierFacade;
 import br.com.pousda.pousada.security.AuthPrincipal;
+import br.com.pousda.pousada.sequencias.application.SequenciaMensalService;
+import br.com.pousda.pousada.sequencias.domain.enuns.TipoSequencia;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -44,6 +49,9 @@ public class FinanceiroService {
     private final NotifierFacade notifier;
     private final UsersQueryPort users;
     private final HospedagemRepository hospedagens;
+    private final SequenciaMensalService sequencias;
+    private final ApplicationEventPublisher eventos;
+    private final ResumoDiarioService resumos;
 
     private static final ZoneId ZONE_BR = ZoneId.of("America/Bahia");
 
@@ -125,29 +133,9 @@ public class FinanceiroService {
 
     private String gerarCodigoDoMes(LocalDate baseDate) {
         LocalDate ref = (baseDate != null ? baseDate : LocalDate.now(ZONE_BR));
-        YearMonth ym = YearMonth.from(ref);
-        String prefix = String.format("%04d%02d", ym.getYear(), ym.getMonthValue()); // ex: 202511
-
-        return repo.findTopByCodigoStartingWithOrderByCodigoDesc(prefix)
-                .map(ult -> {
-                    String codigo = ult.getCodigo();
-                    if (codigo == null || codigo.length() <= prefix.length()) {
-                        return prefix + "001";
-                    }
-                    String sufix = codigo.substring(prefix.length());
-                    int next;
-                    try {
-                        next = Integer.parseInt(sufix) + 1;
-                    } catch (NumberFormatException e) {
-                        next = 1;
-                    }
-                    return prefix + String.format("%03d", next);
-                })
-                .orElse(prefix + "001");
-    }
-
-    private <T> T salvarComRetry(java.util.function.Supplier<T> action) {
-        return action.get();
+        return sequencias.proximoCodigo(TipoSequencia.LANCAMENTO_FINANCEIRO, YearMonth.from(ref),
+                prefix -> repo.findTopByCodigoStartingWithOrderByCodigoDesc(prefix)
+                        .map(LancamentoFinanceiro::getCodigo));
     }
 
     /* ============================ CREATE ============================ */
@@ -185,12 +173,8 @@ public class FinanceiroService {
         novoLancamento.setCriadoPorNome(displayUser());
         novoLancamento.setPrefeitura(Boolean.FALSE);
 
-        LancamentoFinanceiro salvo;
-        try {
-            salvo = salvarComRetry(() -> repo.save(novoLancamento));
-        } catch (DataIntegrityViolationException e) {
-            throw e;
-        }
+        LancamentoFinanceiro salvo = repo.save(novoLancamento);
+        eventos.publishEvent(new DashboardDadosAlteradosEvent("FINANCEIRO", salvo.getData()));
 
         notifier.finLancamentoCriado(
                 salvo.getId(),
@@ -240,14 +224,15 @@ public class FinanceiroService {
                 .collect(Collectors.toList());
     }
 
-    @Transactional(readOnly = true)
+    // soma de resumo_financeiro_dia (um registro por dia) + lançamentos com data futura
     public Double saldoAtual() {
-        return repo.calcularSaldoAtual();
+        double[] s = resumos.saldos();
+        return s != null ? s[0] : repo.calcularSaldoAtual();
     }
 
-    @Transactional(readOnly = true)
     public Double saldoAtualPrefeitura() {
-        return repo.calcularSaldoAtualPrefeitura();
+        double[] s = resumos.saldos();
+        return s != null ? s[1] : repo.calcularSaldoAtualPrefeitura();
     }
 
     /* ============================ UPDATE ============================ */
@@ -289,6 +274,7 @@ public class FinanceiroService {
         l.setEditadoPorNome(displayUser());
 
         LancamentoFinanceiro up = repo.save(l);
+        eventos.publishEvent(new DashboardDadosAlteradosEvent("FINANCEIRO", up.getData()));
 
         notifier.finLancamentoAtualizado(
                 up.getId(),
@@ -332,6 +318,7 @@ public class FinanceiroService {
         );
 
         repo.save(l);
+        eventos.publishEvent(new DashboardDadosAlteradosEvent("FINANCEIRO", l.getData()));
 
         log.info("✅ Lançamento {} cancelado. Dashboard será atualizado.", l.getCodigo());
 
@@ -387,7 +374,8 @@ public class FinanceiroService {
         l.setPrefeitura(prefeitura);
 
         try {
-            salvarComRetry(() -> repo.save(l));
+            repo.save(l);
+            eventos.publishEvent(new DashboardDadosAlteradosEvent("FINANCEIRO", l.getData()));
 
             log.info("💰 Entrada financeira criada para hospedagem: {}", codigoHosp);
 
@@ -403,7 +391,7 @@ public class FinanceiroService {
             );
         } catch (DataIntegrityViolationException e) {
             // não deixa essa exception sujar a transação da hospedagem
-            log.error("[FIN] Código duplicado ao registrar entrada da hospedagem {}: {}", codigoHosp, e.getMessage());
+            log.error("[FIN] Violação de integridade ao registrar entrada da hospedagem {}: {}", codigoHosp, e.getMessage());
         } catch (Exception e) {
             log.error("[FIN] Falha ao registrar entrada (via hospedagem {}): {}", codigoHosp, e.getMessage(), e);
         }
@@ -436,6 +424,7 @@ public class FinanceiroService {
                             : motivo.trim()
             );
             repo.save(l);
+            eventos.publishEvent(new DashboardDadosAlteradosEvent("FINANCEIRO", l.getData()));
 
             log.info("✅ Entrada financeira cancelada para hospedagem: {} (lançamento {})",
                     hospedagemId, l.getCodigo());
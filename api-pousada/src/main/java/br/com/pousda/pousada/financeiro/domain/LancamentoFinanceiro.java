@@ -14,6 +14,7 @@ import java.time.LocalDateTime;
 @Table(name = "lancamento_financeiro",
         indexes = {
                 @Index(name = "idx_lanc_fin_data", columnList = "data"),
+                @Index(name = "idx_lanc_fin_data_hora_id", columnList = "data_hora, id"),
                 @Index(name = "idx_lanc_fin_codigo", columnList = "codigo", unique = true)
         })
 public class LancamentoFinanceiro {
@@ -10,6 +10,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -26,6 +27,29 @@ public interface LancamentoFinanceiroRepository extends JpaRepository<Lancamento
 
     List<LancamentoFinanceiro> findByDataBetweenAndExcluidoEmIsNullOrderByDataHoraDesc(LocalDate inicio, LocalDate fim);
 
+    // Movimentações do dashboard por cursor (keyset em dataHora desc, id desc como desempate)
+    @Query("select l.id as id, l.dataHora as dataHora, l.origem as origem, l.tipo as tipo, " +
+            "       l.valor as valor, l.descricao as descricao " +
+            "from LancamentoFinanceiro l " +
+            "where l.excluidoEm is null and l.data >= :desde " +
+            "order by l.dataHora desc, l.id desc")
+    List<MovimentacaoResumoView> findMovimentacoesDesde(@Param("desde") LocalDate desde,
+                                                        Pageable limite);
+
+    @Query("select l.id as id, l.dataHora as dataHora, l.origem as origem, l.tipo as tipo, " +
+            "       l.valor as valor, l.descricao as descricao " +
+            "from LancamentoFinanceiro l " +
+            "where l.excluidoEm is null and l.data >= :desde " +
+            "  and (l.dataHora < :cursorDataHora or (l.dataHora = :cursorDataHora and l.id < :cursorId)) " +
+            "order by l.dataHora desc, l.id desc")
+    List<MovimentacaoResumoView> findMovimentacoesDesdeApos(@Param("desde") LocalDate desde,
+                                                            @Param("cursorDataHora") LocalDateTime cursorDataHora,
+                                                            @Param("cursorId") Long cursorId,
+                                                            Pageable limite);
+
+    @Query("select l.dataHora from LancamentoFinanceiro l where l.id = :id")
+    Optional<LocalDateTime> findDataHoraById(@Param("id") Long id);
+
     boolean existsByOrigemAndReferenciaIdAndExcluidoEmIsNull(OrigemLancamento origem, Long referenciaId);
 
     Optional<LancamentoFinanceiro> findFirstByOrigemAndReferenciaIdAndExcluidoEmIsNullOrderByIdDesc(
@@ -75,6 +99,21 @@ public interface LancamentoFinanceiroRepository extends JpaRepository<Lancamento
     )
     Double calcularSaldoAtualPrefeitura();
 
+    // Saldo (geral e prefeitura) dos lançamentos a partir de :desde — datas futuras, fora de resumo_financeiro_dia
+    @Query(value =
+            "SELECT " +
+                    "  COALESCE(SUM(CASE WHEN l.tipo = 'ENTRADA' THEN l.valor ELSE -l.valor END), 0), " +
+                    "  COALESCE(SUM(CASE WHEN l.prefeitura = true " +
+                    "                    THEN (CASE WHEN l.tipo = 'ENTRADA' THEN l.valor ELSE -l.valor END) END), 0) " +
+                    "FROM lancamento_financeiro l " +
+                    "WHERE l.excluido_em IS NULL " +
+                    "  AND l.data >= :desde",
+            nativeQuery = true)
+    List<Object[]> calcularSaldosDesde(@Param("desde") LocalDate desde);
+
+    @Query("select min(l.data) from LancamentoFinanceiro l where l.excluidoEm is null")
+    LocalDate menorData();
+
     // =========================
     // SALDOS (POR PERÍODO)  ✅ ADICIONADO
     // =========================
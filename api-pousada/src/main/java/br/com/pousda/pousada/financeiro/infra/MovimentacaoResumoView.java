@@ -0,0 +1,22 @@
+package br.com.pousda.pousada.financeiro.infra;
+
+import br.com.pousda.pousada.financeiro.domain.enuns.OrigemLancamento;
+import br.com.pousda.pousada.financeiro.domain.enuns.TipoLancamento;
+
+import java.time.LocalDateTime;
+
+/** Só as colunas da lista de movimentações do dashboard (sem carregar a entidade inteira). */
+public interface MovimentacaoResumoView {
+
+    Long getId();
+
+    LocalDateTime getDataHora();
+
+    OrigemLancamento getOrigem();
+
+    TipoLancamento getTipo();
+
+    Double getValor();
+
+    String getDescricao();
+}
@@ -6,6 +6,7 @@ import br.com.pousda.pousada.hospedagens.domain.enuns.TipoHospedagem;
 import br.com.pousda.pousada.hospedagens.dtos.CheckoutDTO;
 import br.com.pousda.pousada.hospedagens.dtos.HospedagemDTO;
 import br.com.pousda.pousada.hospedagens.dtos.HospedagemResponseDTO;
+import br.com.pousda.pousada.util.PaginaDTO;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.*;
@@ -116,4 +117,22 @@ public class HospedagemController {
 
         return ResponseEntity.ok(lista);
     }
+
+    /* ======== listagem paginada (filtros e ordenação no banco) ======== */
+    @GetMapping("/pagina")
+    public ResponseEntity<PaginaDTO<HospedagemResponseDTO>> listarPaginado(
+            @RequestParam(required = false) String nome,
+            @RequestParam(required = false) TipoHospedagem tipo,
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataInicio,
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataFim,
+            @RequestParam(required = false) String status,
+            @RequestParam(defaultValue = "0") int pagina,
+            @RequestParam(defaultValue = "20") int tamanho,
+            @RequestParam(required = false) String ordenarPor
+    ) {
+        return ResponseEntity.ok(service.listarPaginado(
+                nome, tipo, dataInicio, dataFim, status, pagina, tamanho, ordenarPor));
+    }
 }
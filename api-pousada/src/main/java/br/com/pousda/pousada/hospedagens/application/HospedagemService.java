@@ -1,5 +1,6 @@
 package br.com.pousda.pousada.hospedagens.application;
 
+import br.com.pousda.pousada.dashboard.domain.DashboardDadosAlteradosEvent;
 import br.com.pousda.pousada.exception.*;
 import br.com.pousda.pousada.financeiro.application.FinanceiroService;
 import br.com.pousda.pousada.hospedagens.domain.Hospedagem;
@@ -8,15 +9,25 @@ import br.com.pousda.pousada.hospedagens.dtos.CheckoutDTO;
 import br.com.pousda.pousada.hospedagens.dtos.HospedagemDTO;
 import br.com.pousda.pousada.hospedagens.dtos.HospedagemResponseDTO;
 import br.com.pousda.pousada.hospedagens.infra.HospedagemRepository;
+import br.com.pousda.pousada.hospedagens.infra.HospedagemSpecs;
 import br.com.pousda.pousada.notificacoes.application.facade.NotifierFacade;
+import br.com.pousda.pousada.quartos.application.ocupacao.OcupacaoQuartoIndex;
 import br.com.pousda.pousada.quartos.domain.Quarto;
 import br.com.pousda.pousada.quartos.domain.enuns.StatusQuarto;
 import br.com.pousda.pousada.quartos.infra.QuartoRepository;
 import br.com.pousda.pousada.reservas.domain.Reserva;
 import br.com.pousda.pousada.reservas.domain.StatusReserva;
 import br.com.pousda.pousada.reservas.infra.ReservaRepository;
+import br.com.pousda.pousada.sequencias.application.SequenciaMensalService;
+import br.com.pousda.pousada.sequencias.domain.enuns.TipoSequencia;
 import br.com.pousda.pousada.usuarios.domain.Usuario;
+import br.com.pousda.pousada.util.PaginaDTO;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -26,12 +37,12 @@ import org.springframework.stereotype.Service;
 import javax.transaction.Transactional;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.time.ZoneId;
 import java.time.temporal.ChronoUnit;
-import java.util.Comparator;
 import java.util.List;
 import java.util.Objects;
-import java.util.stream.Collectors;
+import java.util.Set;
 
 @Service
 public class HospedagemService {
@@ -41,6 +52,9 @@ public class HospedagemService {
     @Autowired private ReservaRepository reservaRepository;
     @Autowired private NotifierFacade notifier;
     @Autowired private FinanceiroService financeiro;
+    @Autowired private OcupacaoQuartoIndex ocupacao;
+    @Autowired private SequenciaMensalService sequencias;
+    @Autowired private ApplicationEventPublisher eventos;
 
     private static final ZoneId ZONE_BR = ZoneId.of("America/Bahia");
 
@@ -112,22 +126,13 @@ public class HospedagemService {
     }
 
     private String gerarCodigoSequencialMensal() {
-        LocalDate hoje = todayBr();
-        String prefix = String.format("%04d%02d", hoje.getYear(), hoje.getMonthValue());
-
-        int next = 1;
-        var ultimoOpt = hospedagemRepository
-                .findTopByCodigoHospedagemStartingWithOrderByCodigoHospedagemDesc(prefix);
-
-        if (ultimoOpt.isPresent()) {
-            String ult = ultimoOpt.get().getCodigoHospedagem();
-            String sufix = ult.substring(prefix.length());
-            try { next = Integer.parseInt(sufix) + 1; } catch (NumberFormatException ignore) {}
-        }
-
-        return prefix + String.format("%03d", next);
+        return sequencias.proximoCodigo(TipoSequencia.HOSPEDAGEM, YearMonth.from(todayBr()),
+                prefix -> hospedagemRepository
+                        .findTopByCodigoHospedagemStartingWithOrderByCodigoHospedagemDesc(prefix)
+                        .map(Hospedagem::getCodigoHospedagem));
     }
 
+    // escrita confere no banco: o OcupacaoQuartoIndex é por instância e só atende leituras
     private boolean existeConflito(Quarto quarto, LocalDate inicioInclusivo, LocalDate fimExclusivo) {
         LocalDate ultimoDia = fimExclusivo.minusDays(1);
         return hospedagemRepository
@@ -136,19 +141,24 @@ public class HospedagemService {
                 );
     }
 
-    private boolean existeConflitoEditando(Hospedagem atual, LocalDate inicioInclusivo, LocalDate fimExclusivo) {
+    private boolean existeConflitoEditando(Hospedagem atual, Quarto quarto,
+                                           LocalDate inicioInclusivo, LocalDate fimExclusivo) {
+        if (quarto == null) return false;
         LocalDate ultimoDia = fimExclusivo.minusDays(1);
-        return hospedagemRepository.findAllComQuarto().stream()
-                .filter(h -> !Objects.equals(h.getId(), atual.getId()))
-                .filter(h -> h.getQuarto() != null &&
-                        atual.getQuarto() != null &&
-                        Objects.equals(h.getQuarto().getId(), atual.getQuarto().getId()))
-                .anyMatch(h ->
-                        (h.getDataEntrada() == null || !h.getDataEntrada().isAfter(ultimoDia)) &&
-                                (h.getDataSaida() == null || h.getDataSaida().isAfter(inicioInclusivo))
+        return hospedagemRepository
+                .existsByQuartoAndIdNotAndDataEntradaLessThanEqualAndDataSaidaGreaterThan(
+                        quarto, atual.getId(), ultimoDia, inicioInclusivo
                 );
     }
 
+    private boolean existeReservaConflitante(Quarto quarto, LocalDate inicioInclusivo, LocalDate fimExclusivo) {
+        return !reservaRepository
+                .findConflitos(quarto,
+                        List.of(StatusReserva.PENDENTE, StatusReserva.CONFIRMADA),
+                        inicioInclusivo, fimExclusivo)
+                .isEmpty();
+    }
+
     /** helper pra saber se a hospedagem é da PREFEITURA */
     private boolean isPrefeitura(Hospedagem h) {
         return h != null && h.getTipo() == TipoHospedagem.PREFEITURA;
@@ -235,11 +245,7 @@ public class HospedagemService {
                 .orElseThrow(() -> new QuartoNaoEncontradoException(dto.getNumeroQuarto()));
 
         // não pode ter reserva ativa hoje
-        boolean temReservaHoje = !reservaRepository
-                .findConflitos(quarto,
-                        java.util.List.of(StatusReserva.PENDENTE, StatusReserva.CONFIRMADA),
-                        hoje, hoje.plusDays(1))
-                .isEmpty();
+        boolean temReservaHoje = existeReservaConflitante(quarto, hoje, hoje.plusDays(1));
         if (temReservaHoje)
             throw new QuartoOcupadoException("O quarto " + quarto.getNumero() + " possui uma reserva ativa hoje.");
 
@@ -280,6 +286,8 @@ public class HospedagemService {
         quarto.setStatus(StatusQuarto.OCUPADO);
         quartoRepository.save(quarto);
         hospedagemRepository.save(h);
+        ocupacao.hospedagemSalva(h);
+        eventos.publishEvent(new DashboardDadosAlteradosEvent("HOSPEDAGEM", h.getDataEntrada(), h.getDataSaida()));
 
         // >>> financeiro: marca se é prefeitura
         boolean prefeitura = isPrefeitura(h);
@@ -319,23 +327,20 @@ public class HospedagemService {
         StringBuilder resumo = new StringBuilder();
         String formaPagamentoAntiga = h.getFormaPagamento();
         Double valorAnterior = h.getValorTotal();
+        LocalDate saidaAnterior = h.getDataSaida();
 
         if (dto.getNumeroDiarias() != null && dto.getNumeroDiarias() > 0) {
             LocalDate dataEntrada = h.getDataEntrada() != null ? h.getDataEntrada() : todayBr();
             LocalDate novaSaida = dataEntrada.plusDays(dto.getNumeroDiarias());
 
-            if (h.getQuarto() != null && existeConflitoEditando(h, dataEntrada, novaSaida)) {
+            if (h.getQuarto() != null && existeConflitoEditando(h, h.getQuarto(), dataEntrada, novaSaida)) {
                 throw new QuartoOcupadoException(
                         "Já existe hospedagem nesse período para o quarto " + h.getQuarto().getNumero() + "."
                 );
             }
 
             if (h.getQuarto() != null) {
-                boolean temReservaConflito = !reservaRepository
-                        .findConflitos(h.getQuarto(),
-                                java.util.List.of(StatusReserva.PENDENTE, StatusReserva.CONFIRMADA),
-                                dataEntrada, novaSaida)
-                        .isEmpty();
+                boolean temReservaConflito = existeReservaConflitante(h.getQuarto(), dataEntrada, novaSaida);
                 if (temReservaConflito) {
                     throw new QuartoOcupadoException(
                             "Existe reserva ativa nesse período para o quarto " + h.getQuarto().getNumero() + "."
@@ -398,13 +403,7 @@ public class HospedagemService {
                 LocalDate ini = h.getDataEntrada();
                 LocalDate fim = (h.getDataSaida() != null) ? h.getDataSaida() : ini.plusDays(1);
 
-                boolean conflito = hospedagemRepository.findAllComQuarto().stream()
-                        .filter(x -> !Objects.equals(x.getId(), h.getId()))
-                        .filter(x -> x.getQuarto() != null && Objects.equals(x.getQuarto().getId(), novo.getId()))
-                        .anyMatch(x ->
-                                (x.getDataEntrada() == null || !x.getDataEntrada().isAfter(fim.minusDays(1))) &&
-                                        (x.getDataSaida() == null || x.getDataSaida().isAfter(ini))
-                        );
+                boolean conflito = existeConflitoEditando(h, novo, ini, fim);
                 if (conflito)
                     throw new QuartoOcupadoException("Já existe hospedagem nesse período para o quarto " + novo.getNumero() + ".");
 
@@ -422,6 +421,8 @@ public class HospedagemService {
         }
 
         hospedagemRepository.save(h);
+        ocupacao.hospedagemSalva(h);
+        eventos.publishEvent(new DashboardDadosAlteradosEvent("HOSPEDAGEM", h.getDataEntrada(), saidaAnterior, h.getDataSaida()));
         try { resyncEntradaFinanceira(h, valorAnterior); } catch (Exception ignore) {}
 
         safeNotify(() -> notifier.hospedagemAtualizada(h, resumo.toString().trim()), "hospedagemAtualizada");
@@ -449,6 +450,7 @@ public class HospedagemService {
         long diasHospedados = ChronoUnit.DAYS.between(h.getDataEntrada(), hoje);
         if (diasHospedados <= 0) diasHospedados = 1;
 
+        LocalDate saidaAnterior = h.getDataSaida();
         h.setDataSaida(hoje);
         Double vd = h.getValorDiaria() != null ? h.getValorDiaria() : 0d;
         Double valorAnterior = h.getValorTotal();
@@ -459,6 +461,8 @@ public class HospedagemService {
 
         hospedagemRepository.save(h);
         quartoRepository.save(quarto);
+        ocupacao.hospedagemSalva(h);
+        eventos.publishEvent(new DashboardDadosAlteradosEvent("HOSPEDAGEM", h.getDataEntrada(), saidaAnterior, h.getDataSaida()));
 
         try { resyncEntradaFinanceira(h, valorAnterior); } catch (Exception ignore) {}
 
@@ -489,6 +493,8 @@ public class HospedagemService {
 
         String executadoPor = usuarioAtualOuSystem();
         hospedagemRepository.delete(h);
+        ocupacao.hospedagemRemovida(h.getId());
+        eventos.publishEvent(new DashboardDadosAlteradosEvent("HOSPEDAGEM", h.getDataEntrada(), h.getDataSaida()));
 
         safeNotify(() -> notifier.hospedagemAtualizada(h, "Excluída por: " + executadoPor), "hospedagemExcluida");
     }
@@ -554,6 +560,8 @@ public class HospedagemService {
         quarto.setStatus(StatusQuarto.OCUPADO);
         quartoRepository.save(quarto);
         hospedagemRepository.save(h);
+        ocupacao.hospedagemSalva(h);
+        eventos.publishEvent(new DashboardDadosAlteradosEvent("HOSPEDAGEM", h.getDataEntrada(), h.getDataSaida()));
 
         // >>> financeiro: marca se essa hospedagem é da prefeitura
         boolean prefeitura = isPrefeitura(h);
@@ -574,42 +582,71 @@ public class HospedagemService {
     }
 
     /* ============================ LISTAGEM ============================ */
+
+    private static final Set<String> CAMPOS_ORDENAVEIS =
+            Set.of("dataEntrada", "dataSaida", "nome", "codigoHospedagem", "valorTotal", "id");
+
+    private static final int TAMANHO_MAXIMO_PAGINA = 100;
+
+    // filtros e regra "ativa" vão para o SQL (HospedagemSpecs)
+    private Specification<Hospedagem> filtros(String nome, TipoHospedagem tipo,
+                                              LocalDate dataInicio, LocalDate dataFim, String status) {
+        Specification<Hospedagem> spec = Specification.where(HospedagemSpecs.comQuarto())
+                .and(HospedagemSpecs.naoCancelada())
+                .and(HospedagemSpecs.nomeContem(nome))
+                .and(HospedagemSpecs.tipo(tipo))
+                .and(HospedagemSpecs.entradaEntre(dataInicio, dataFim));
+
+        if (status != null) {
+            if (status.equalsIgnoreCase("ATIVAS") || status.equalsIgnoreCase("ATIVA")) {
+                spec = spec.and(HospedagemSpecs.ativa(todayBr()));
+            } else if (status.equalsIgnoreCase("INATIVAS") || status.equalsIgnoreCase("INATIVA")) {
+                spec = spec.and(HospedagemSpecs.inativa(todayBr()));
+            }
+        }
+        return spec;
+    }
+
+    @Transactional(Transactional.TxType.SUPPORTS)
     public List<Hospedagem> listar(String nome, TipoHospedagem tipo,
                                    LocalDate dataInicio, LocalDate dataFim, String status) {
+        return hospedagemRepository.findAll(
+                filtros(nome, tipo, dataInicio, dataFim, status).and(HospedagemSpecs.ordemPadrao()));
+    }
 
-        return hospedagemRepository.findAllComQuarto().stream()
-                .filter(h -> !Boolean.TRUE.equals(h.getCancelada()) && !Boolean.TRUE.equals(h.getCancelado()))
-                .filter(h -> {
-                    if (nome == null || nome.isBlank()) return true;
-                    String n = h.getNome();
-                    return n != null && n.toLowerCase().contains(nome.toLowerCase());
-                })
-                .filter(h -> tipo == null || h.getTipo() == tipo)
-                .filter(h -> {
-                    if (dataInicio == null && dataFim == null) return true;
-                    LocalDate entrada = h.getDataEntrada();
-                    if (entrada == null) return false;
-                    if (dataInicio != null && entrada.isBefore(dataInicio)) return false;
-                    if (dataFim != null && entrada.isAfter(dataFim)) return false;
-                    return true;
-                })
-                .filter(h -> {
-                    if (status == null || status.isBlank() || status.equalsIgnoreCase("TODAS")) {
-                        return true;
-                    }
-                    boolean ativa = isAtiva(h);
-                    if (status.equalsIgnoreCase("ATIVAS") || status.equalsIgnoreCase("ATIVA")) {
-                        return ativa;
-                    }
-                    if (status.equalsIgnoreCase("INATIVAS") || status.equalsIgnoreCase("INATIVA")) {
-                        return !ativa;
-                    }
-                    return true;
-                })
-                .sorted(Comparator.comparing(Hospedagem::getDataEntrada,
-                                Comparator.nullsLast(Comparator.reverseOrder()))
-                        .thenComparing(Hospedagem::getId, Comparator.nullsLast(Comparator.reverseOrder())))
-                .collect(Collectors.toList());
+    /**
+     * Mesma listagem, paginada no banco. ordenarPor aceita "campo" ou "campo,asc|desc";
+     * campos fora de CAMPOS_ORDENAVEIS caem na ordem padrão (entrada mais recente primeiro).
+     */
+    @Transactional(Transactional.TxType.SUPPORTS)
+    public PaginaDTO<HospedagemResponseDTO> listarPaginado(String nome, TipoHospedagem tipo,
+                                                          LocalDate dataInicio, LocalDate dataFim,
+                                                          String status, int pagina, int tamanho,
+                                                          String ordenarPor) {
+        int p = Math.max(0, pagina);
+        int t = Math.min(Math.max(1, tamanho), TAMANHO_MAXIMO_PAGINA);
+
+        Specification<Hospedagem> spec = filtros(nome, tipo, dataInicio, dataFim, status);
+        Sort sort = ordenacao(ordenarPor);
+        if (sort.isUnsorted()) spec = spec.and(HospedagemSpecs.ordemPadrao());
+
+        Page<Hospedagem> page = hospedagemRepository.findAll(spec, PageRequest.of(p, t, sort));
+
+        return PaginaDTO.de(page.map(this::toResponseDTO));
+    }
+
+    // unsorted = ordem padrão, aplicada por HospedagemSpecs.ordemPadrao()
+    private Sort ordenacao(String ordenarPor) {
+        if (ordenarPor == null || ordenarPor.isBlank()) return Sort.unsorted();
+
+        String[] partes = ordenarPor.split(",");
+        String campo = partes[0].trim();
+        if (!CAMPOS_ORDENAVEIS.contains(campo)) return Sort.unsorted();
+
+        boolean asc = partes.length > 1 && partes[1].trim().equalsIgnoreCase("asc");
+        Sort.Order ordem = asc ? Sort.Order.asc(campo) : Sort.Order.desc(campo);
+        // id como desempate para a paginação ser estável
+        return campo.equals("id") ? Sort.by(ordem) : Sort.by(ordem, Sort.Order.desc("id"));
     }
 
     /* ============================ Financeiro Resync ============================ */
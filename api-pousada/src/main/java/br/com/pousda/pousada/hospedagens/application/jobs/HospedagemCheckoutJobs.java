@@ -1,11 +1,13 @@
 package br.com.pousda.pousada.hospedagens.application.jobs;
 
+import br.com.pousda.pousada.dashboard.domain.DashboardDadosAlteradosEvent;
 import br.com.pousda.pousada.hospedagens.domain.Hospedagem;
 import br.com.pousda.pousada.hospedagens.infra.HospedagemRepository;
 import br.com.pousda.pousada.notificacoes.application.facade.NotifierFacade;
 import br.com.pousda.pousada.quartos.domain.enuns.StatusQuarto;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
@@ -25,6 +27,7 @@ public class HospedagemCheckoutJobs {
 
     private final HospedagemRepository repo;
     private final NotifierFacade notifier;
+    private final ApplicationEventPublisher eventos;
 
     /**
      * 11:00 — lembrete para quem tem checkout hoje e ainda está com o quarto OCUPADO
@@ -73,6 +76,7 @@ public class HospedagemCheckoutJobs {
             }
 
             repo.save(h);
+            eventos.publishEvent(new DashboardDadosAlteradosEvent("HOSPEDAGEM"));
 
             try {
                 notifier.hospedagemCheckoutAutomaticoConcluido(h);
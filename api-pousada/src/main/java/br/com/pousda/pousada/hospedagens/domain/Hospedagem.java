@@ -16,7 +16,8 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "hospedagem")
+@Table(name = "hospedagem",
+        indexes = @Index(name = "idx_hospedagem_data_entrada", columnList = "dataEntrada"))
 // REMOVIDO: @EntityListeners(AuditingEntityListener.class)
 public class Hospedagem {
 
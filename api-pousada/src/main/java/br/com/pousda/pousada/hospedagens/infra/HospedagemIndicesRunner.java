@@ -0,0 +1,32 @@
+package br.com.pousda.pousada.hospedagens.infra;
+
+import br.com.pousda.pousada.util.IndicesRunner;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Índice da busca por nome do hóspede na listagem (lower(nome) LIKE '%x%').
+ * Com pg_trgm o índice atende qualquer trecho do nome; sem a extensão fica um btree em
+ * lower(nome), que ainda acelera a busca mais comum na recepção (o começo do nome).
+ */
+@Component
+@ConditionalOnProperty(name = "app.indices.hospedagem", havingValue = "true", matchIfMissing = true)
+public class HospedagemIndicesRunner extends IndicesRunner {
+
+    public HospedagemIndicesRunner(JdbcTemplate jdbc) {
+        super(jdbc, "HOSPEDAGEM");
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        boolean trigram = habilitarTrigram()
+                && executar("CREATE INDEX IF NOT EXISTS idx_hospedagem_nome_trgm " +
+                "ON hospedagem USING gin (lower(nome) gin_trgm_ops)");
+
+        if (!trigram) {
+            executar("CREATE INDEX IF NOT EXISTS idx_hospedagem_nome_lower ON hospedagem (lower(nome))");
+        }
+    }
+}
@@ -3,6 +3,7 @@ package br.com.pousda.pousada.hospedagens.infra;
 import br.com.pousda.pousada.hospedagens.domain.Hospedagem;
 import br.com.pousda.pousada.quartos.domain.Quarto;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -12,7 +13,8 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface HospedagemRepository extends JpaRepository<Hospedagem, Long> {
+public interface HospedagemRepository extends JpaRepository<Hospedagem, Long>,
+        JpaSpecificationExecutor<Hospedagem> {
 
     Optional<Hospedagem> findTopByQuartoOrderByIdDesc(Quarto terceiro);
 
@@ -28,6 +30,13 @@ public interface HospedagemRepository extends JpaRepository<Hospedagem, Long> {
             LocalDate dataRef2
     );
 
+    boolean existsByQuartoAndIdNotAndDataEntradaLessThanEqualAndDataSaidaGreaterThan(
+            Quarto quarto,
+            Long id,
+            LocalDate dataRef1,
+            LocalDate dataRef2
+    );
+
     int countByDataEntradaGreaterThanEqualAndDataEntradaLessThan(LocalDate inicio, LocalDate fimExclusivo);
 
     default int countBetween(LocalDate inicio, LocalDate fimExclusivo) {
@@ -39,6 +48,12 @@ public interface HospedagemRepository extends JpaRepository<Hospedagem, Long> {
     @Query("SELECT h FROM Hospedagem h LEFT JOIN FETCH h.quarto q")
     List<Hospedagem> findAllComQuarto();
 
+    // Intervalos para o índice de ocupação: [0]=id, [1]=quartoId, [2]=dataEntrada, [3]=dataSaida
+    @Query("SELECT h.id, h.quarto.id, h.dataEntrada, h.dataSaida FROM Hospedagem h " +
+            "WHERE (h.cancelada = false OR h.cancelada IS NULL) " +
+            "AND (h.cancelado = false OR h.cancelado IS NULL)")
+    List<Object[]> findIntervalosAtivos();
+
     @Query("SELECT h FROM Hospedagem h LEFT JOIN FETCH h.quarto q WHERE h.id = :id")
     Optional<Hospedagem> findByIdComQuarto(@Param("id") Long id);
 
@@ -76,23 +91,25 @@ public interface HospedagemRepository extends JpaRepository<Hospedagem, Long> {
     long countHospedagensAtivasNoPeriodo(@Param("inicio") LocalDate inicio,
                                          @Param("fim") LocalDate fim);
 
-    // ✅ Série ocupação por dia (período)
-    // Obs: aqui eu mantive o conceito de reservas PENDENTES no mesmo dia.
-    @Query(
-            "select h.dataEntrada as dia, " +
-                    "       count(h.id) as qtdHospedagens, " +
-                    "       (select count(r.id) " +
-                    "          from Reserva r " +
-                    "         where r.dataEntrada = h.dataEntrada " +
-                    "           and r.status = br.com.pousda.pousada.reservas.domain.StatusReserva.PENDENTE) " +
-                    "from Hospedagem h " +
-                    "where (h.cancelada = false or h.cancelada is null) " +
-                    "and h.dataEntrada between :inicio and :fim " +
-                    "group by h.dataEntrada " +
-                    "order by h.dataEntrada"
-    )
-    List<Object[]> ocupacaoPorDiaEntre(@Param("inicio") LocalDate inicio,
-                                       @Param("fim") LocalDate fim);
+    // ✅ Intervalos para a série de ocupação por dia (varredura em OcupacaoDiaria)
+    // [0]='H' hospedagem ativa / 'R' reserva PENDENTE, [1]=início, [2]=fim exclusivo.
+    // Hospedagem sem saída (ou saída = entrada) ocupa só o dia da entrada; reserva conta no dia da entrada.
+    @Query(value =
+            "SELECT 'H', h.data_entrada, " +
+                    "       GREATEST(COALESCE(h.data_saida, h.data_entrada + 1), h.data_entrada + 1) " +
+                    "FROM hospedagem h " +
+                    "WHERE (h.cancelada = false OR h.cancelada IS NULL) " +
+                    "  AND (h.cancelado = false OR h.cancelado IS NULL) " +
+                    "  AND h.data_entrada <= :fim " +
+                    "  AND GREATEST(COALESCE(h.data_saida, h.data_entrada + 1), h.data_entrada + 1) > :inicio " +
+                    "UNION ALL " +
+                    "SELECT 'R', r.data_entrada, r.data_entrada + 1 " +
+                    "FROM reserva r " +
+                    "WHERE r.status = 'PENDENTE' " +
+                    "  AND r.data_entrada BETWEEN :inicio AND :fim",
+            nativeQuery = true)
+    List<Object[]> intervalosOcupacaoEntre(@Param("inicio") LocalDate inicio,
+                                           @Param("fim") LocalDate fim);
 
     // ✅ Checkouts pendentes (hoje) com quarto OCUPADO
     @Query(
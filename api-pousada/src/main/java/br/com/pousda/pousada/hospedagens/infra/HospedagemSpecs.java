@@ -0,0 +1,109 @@
+package br.com.pousda.pousada.hospedagens.infra;
+
+import br.com.pousda.pousada.hospedagens.domain.Hospedagem;
+import br.com.pousda.pousada.hospedagens.domain.enuns.TipoHospedagem;
+import br.com.pousda.pousada.quartos.domain.enuns.StatusQuarto;
+import org.springframework.data.jpa.domain.Specification;
+
+import javax.persistence.criteria.Fetch;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.JoinType;
+import javax.persistence.criteria.Root;
+import java.time.LocalDate;
+
+/**
+ * Filtros da listagem de hospedagens, todos resolvidos no SQL.
+ * Espelham as regras de HospedagemService.listar / isAtiva.
+ */
+public final class HospedagemSpecs {
+
+    private HospedagemSpecs() {}
+
+    /** Traz o quarto junto na consulta da página (no COUNT não pode ter fetch). */
+    public static Specification<Hospedagem> comQuarto() {
+        return (root, query, cb) -> {
+            Class<?> tipoResultado = query.getResultType();
+            if (tipoResultado != Long.class && tipoResultado != long.class) {
+                root.fetch("quarto", JoinType.LEFT);
+            }
+            return null;
+        };
+    }
+
+    /**
+     * Ordem da listagem antiga: entrada mais recente primeiro, sem data de entrada por último, id desempata.
+     * Fica na spec porque o Sort do Spring Data não repassa NULLS LAST para a Criteria.
+     */
+    public static Specification<Hospedagem> ordemPadrao() {
+        return (root, query, cb) -> {
+            Class<?> tipoResultado = query.getResultType();
+            if (tipoResultado != Long.class && tipoResultado != long.class) {
+                query.orderBy(
+                        cb.asc(cb.selectCase().when(cb.isNull(root.get("dataEntrada")), 1).otherwise(0)),
+                        cb.desc(root.get("dataEntrada")),
+                        cb.desc(root.get("id")));
+            }
+            return null;
+        };
+    }
+
+    public static Specification<Hospedagem> naoCancelada() {
+        return (root, query, cb) -> cb.and(
+                cb.or(cb.isNull(root.get("cancelada")), cb.isFalse(root.get("cancelada"))),
+                cb.or(cb.isNull(root.get("cancelado")), cb.isFalse(root.get("cancelado")))
+        );
+    }
+
+    // lower(nome) LIKE '%x%' -> usa o índice trigram idx_hospedagem_nome_trgm (HospedagemIndicesRunner)
+    public static Specification<Hospedagem> nomeContem(String nome) {
+        if (nome == null || nome.isBlank()) return null;
+        String padrao = "%" + nome.trim().toLowerCase()
+                .replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+        return (root, query, cb) -> cb.like(cb.lower(root.get("nome")), padrao, '\\');
+    }
+
+    public static Specification<Hospedagem> tipo(TipoHospedagem tipo) {
+        if (tipo == null) return null;
+        return (root, query, cb) -> cb.equal(root.get("tipo"), tipo);
+    }
+
+    public static Specification<Hospedagem> entradaEntre(LocalDate inicio, LocalDate fim) {
+        if (inicio == null && fim == null) return null;
+        return (root, query, cb) -> {
+            if (inicio != null && fim != null) return cb.between(root.get("dataEntrada"), inicio, fim);
+            if (inicio != null) return cb.greaterThanOrEqualTo(root.get("dataEntrada"), inicio);
+            return cb.lessThanOrEqualTo(root.get("dataEntrada"), fim);
+        };
+    }
+
+    /** Ativa = quarto ainda OCUPADO ou saída depois de hoje (cancelada já foi filtrada). */
+    public static Specification<Hospedagem> ativa(LocalDate hoje) {
+        return (root, query, cb) -> cb.or(
+                cb.equal(quarto(root).get("status"), StatusQuarto.OCUPADO),
+                cb.greaterThan(root.get("dataSaida"), hoje)
+        );
+    }
+
+    public static Specification<Hospedagem> inativa(LocalDate hoje) {
+        return (root, query, cb) -> {
+            Join<Hospedagem, ?> quarto = quarto(root);
+            return cb.and(
+                    cb.or(cb.isNull(quarto.get("status")),
+                            cb.notEqual(quarto.get("status"), StatusQuarto.OCUPADO)),
+                    cb.or(cb.isNull(root.get("dataSaida")), cb.lessThanOrEqualTo(root.get("dataSaida"), hoje))
+            );
+        };
+    }
+
+    // LEFT JOIN (o do fetch de comQuarto, se já existir): root.get("quarto") viraria INNER e sumiria com quem não tem quarto
+    @SuppressWarnings("unchecked")
+    private static Join<Hospedagem, ?> quarto(Root<Hospedagem> root) {
+        for (Fetch<Hospedagem, ?> f : root.getFetches()) {
+            if (f.getAttribute().getName().equals("quarto")) return (Join<Hospedagem, ?>) f;
+        }
+        for (Join<Hospedagem, ?> j : root.getJoins()) {
+            if (j.getAttribute().getName().equals("quarto")) return j;
+        }
+        return root.join("quarto", JoinType.LEFT);
+    }
+}
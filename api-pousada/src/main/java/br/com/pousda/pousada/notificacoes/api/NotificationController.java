@@ -1,20 +1,23 @@
 package br.com.pousda.pousada.notificacoes.api;
 
+import br.com.pousda.pousada.notificacoes.application.NotificationInboxService;
+import br.com.pousda.pousada.notificacoes.application.NotificationPushService;
 import br.com.pousda.pousada.notificacoes.application.UsersQueryPort;
 import br.com.pousda.pousada.notificacoes.core.domain.dto.NotificationDTO;
 import br.com.pousda.pousada.notificacoes.core.domain.enums.NotificationStatus;
 import br.com.pousda.pousada.notificacoes.core.domain.model.Notification;
 import br.com.pousda.pousada.notificacoes.core.formatter.NotificationFormatterRegistry;
-import br.com.pousda.pousada.notificacoes.core.infra.model.NotificationRead;
 import br.com.pousda.pousada.notificacoes.core.infra.repo.NotificationReadRepository;
 import br.com.pousda.pousada.notificacoes.core.infra.repo.NotificationRepository;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.Instant;
 import java.util.*;
@@ -32,28 +35,32 @@ public class NotificationController {
     private final NotificationReadRepository readRepo;
     private final UsersQueryPort users;
     private final NotificationFormatterRegistry formatterRegistry;
+    private final NotificationInboxService inbox;
+    private final NotificationPushService push;
 
     /* =========================================================
        BADGE: Não lidas (por usuário, ignorando as já marcadas lidas)
        ========================================================= */
     @GetMapping("/unread-count")
-    @Transactional(readOnly = true)
     public Map<String, Integer> unreadCount() {
         long uid = users.currentUserId();
         if (uid == 0L) return Collections.singletonMap("count", 0);
 
-        Instant now = Instant.now();
-        List<Notification> ativas = repo.findActiveForUser(uid, now);
-
-        Set<Long> ids = ativas.stream().map(Notification::getId).collect(Collectors.toSet());
-        Set<Long> lidas = readRepo.findIdsLidas(uid, ids);
+        // contador materializado (notification_unread_counter): leitura por PK
+        return Collections.singletonMap("count", inbox.naoLidas(uid));
+    }
 
-        int count = 0;
-        for (Notification n : ativas) {
-            if (lidas.contains(n.getId())) continue;
-            if (n.getStatus() == NotificationStatus.NOVO) count++;
-        }
-        return Collections.singletonMap("count", count);
+    /* =========================================================
+       STREAM (SSE) — token via ?token= (ver JwtFilter); eventos "notification"
+       Last-Event-ID (header do EventSource ou ?lastEventId=) retoma do buffer
+       ========================================================= */
+    @GetMapping(value = "/stream", produces = "text/event-stream")
+    public ResponseEntity<SseEmitter> stream(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventIdHeader,
+                                             @RequestParam(value = "lastEventId", required = false) String lastEventIdParam) {
+        long uid = users.currentUserId();
+        if (uid == 0L) return ResponseEntity.status(401).build();
+        String lastEventId = lastEventIdHeader != null ? lastEventIdHeader : lastEventIdParam;
+        return ResponseEntity.ok(push.subscribe(uid, lastEventId));
     }
 
     /* =========================================================
@@ -82,36 +89,18 @@ public class NotificationController {
                     .body(Collections.singletonMap("error", "Status inválido: " + status));
         }
 
-        Instant now = Instant.now();
-
-        List<Notification> base = repo.findActiveForUser(uid, now);
-
-        String query = (q == null) ? "" : q.trim().toLowerCase(Locale.ROOT);
-        if (!query.isEmpty()) {
-            final String qq = query;
-            base = base.stream()
-                    .filter(n -> contains(n.getTitle(), qq) || contains(n.getBody(), qq))
-                    .collect(Collectors.toList());
-        }
-
-        Set<Long> ids = base.stream().map(Notification::getId).collect(Collectors.toSet());
-        Set<Long> lidas = readRepo.findIdsLidas(uid, ids);
-
-        List<NotificationDTO> mapped = new ArrayList<>(base.size());
-        for (Notification n : base) {
-            NotificationDTO d = toDto(n);
-            d.setStatus(lidas.contains(n.getId()) ? NotificationStatus.LIDO : NotificationStatus.NOVO);
-            mapped.add(d);
-        }
+        // filtro de status, busca e janela resolvidos no banco; formatter só roda nas linhas da página
+        Boolean lido = (st == null) ? null : (st == NotificationStatus.LIDO);
+        Page<Object[]> pagina = inbox.paginaDoUsuario(uid, lido, q, page, size);
 
-        if (st != null) {
-            mapped = mapped.stream().filter(d -> d.getStatus() == st).collect(Collectors.toList());
+        List<NotificationDTO> pageOut = new ArrayList<>(pagina.getNumberOfElements());
+        for (Object[] row : pagina.getContent()) {
+            NotificationDTO d = toDto((Notification) row[0]);
+            d.setStatus(row[1] != null ? NotificationStatus.LIDO : NotificationStatus.NOVO);
+            pageOut.add(d);
         }
 
-        int totalItems = mapped.size();
-        int from = Math.max(0, page * size);
-        int to = Math.min(totalItems, from + size);
-        List<NotificationDTO> pageOut = (from < to) ? mapped.subList(from, to) : Collections.emptyList();
+        long totalItems = pagina.getTotalElements();
 
         Map<String, Object> body = new HashMap<>();
         body.put("items", pageOut);
@@ -171,10 +160,14 @@ public class NotificationController {
         }
 
         try {
-            Instant now = Instant.now();
-            List<Notification> ativas = repo.findActiveForUser(uid, now);
-            Set<Long> ids = ativas.stream().map(Notification::getId).collect(Collectors.toSet());
-            Set<Long> lidas = readRepo.findIdsLidas(uid, ids);
+            List<Object[]> linhas = inbox.ativasDoUsuario(uid);
+            List<Notification> ativas = new ArrayList<>(linhas.size());
+            Set<Long> lidas = new HashSet<>();
+            for (Object[] row : linhas) {
+                Notification n = (Notification) row[0];
+                ativas.add(n);
+                if (row[1] != null) lidas.add(n.getId());
+            }
 
             Map<String, Object> stats = new HashMap<>();
             stats.put("totalAtivas", ativas.size());
@@ -235,13 +228,7 @@ public class NotificationController {
             return ResponseEntity.status(403).body(Collections.singletonMap("error", "Sem acesso a esta notificação"));
         }
 
-        if (!readRepo.findByNotificationAndUserId(n, uid).isPresent()) {
-            readRepo.save(NotificationRead.builder()
-                    .notification(n)
-                    .userId(uid)
-                    .readAt(Instant.now())
-                    .build());
-        }
+        inbox.marcarComoLida(uid, n);
         return ResponseEntity.noContent().build();
     }
 
@@ -249,37 +236,19 @@ public class NotificationController {
        Marcar TODAS como lidas (por usuário)
        ========================================================= */
     @PostMapping("/marcar-todas-como-lidas")
-    @Transactional
     public ResponseEntity<?> marcarTodasComoLidas() {
         long uid = users.currentUserId();
         if (uid == 0L) {
             return ResponseEntity.status(401).body(Collections.singletonMap("error", "Não autenticado"));
         }
 
-        Instant now = Instant.now();
-        List<Notification> ativas = repo.findActiveForUser(uid, now);
-
-        Set<Long> jaLidas = readRepo.findIdsLidas(uid,
-                ativas.stream().map(Notification::getId).collect(Collectors.toSet()));
-
-        for (Notification n : ativas) {
-            if (jaLidas.contains(n.getId())) continue;
-            readRepo.save(NotificationRead.builder()
-                    .notification(n)
-                    .userId(uid)
-                    .readAt(Instant.now())
-                    .build());
-        }
-        return ResponseEntity.noContent().build();
+        int marcadas = inbox.marcarTodasComoLidas(uid);
+        return ResponseEntity.ok(Collections.singletonMap("count", marcadas));
     }
 
 
     /* ================== Helpers ================== */
 
-    private boolean contains(String s, String q) {
-        return s != null && s.toLowerCase(Locale.ROOT).contains(q);
-    }
-
     private NotificationStatus parseStatusParam(String status) {
         if (status == null || status.trim().isEmpty()) return null;
         String s = status.trim().toUpperCase(Locale.ROOT);
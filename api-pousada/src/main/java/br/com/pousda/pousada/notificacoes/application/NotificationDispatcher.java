@@ -0,0 +1,327 @@
+package br.com.pousda.pousada.notificacoes.application;
+
+import br.com.pousda.pousada.notificacoes.core.domain.enums.NotificationStatus;
+import br.com.pousda.pousada.notificacoes.core.domain.enums.OutboxStatus;
+import br.com.pousda.pousada.notificacoes.core.domain.model.Notification;
+import br.com.pousda.pousada.notificacoes.core.infra.model.NotificationOutbox;
+import br.com.pousda.pousada.notificacoes.core.infra.repo.NotificationOutboxRepository;
+import br.com.pousda.pousada.notificacoes.core.infra.repo.NotificationRepository;
+import br.com.pousda.pousada.usuarios.domain.Usuario;
+import br.com.pousda.pousada.usuarios.infra.UsuarioRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Drena o notification_outbox em lotes, fora da thread/transação de quem gerou o evento.
+ *
+ * - Pool fixo de N workers; cada worker reserva um lote (FOR UPDATE SKIP LOCKED), grava as
+ *   notificações, distribui inbox/contador/leitura do autor com statements por lote, apaga
+ *   o lote do outbox e só então publica no WebSocket.
+ * - Lote que falha é reprocessado item a item; item que falha volta com backoff exponencial
+ *   e vira FALHOU depois de max-tentativas.
+ * - Acordado após o commit de cada send() e, como rede de segurança, a cada intervalo-ms.
+ *
+ * Métricas: notificacoes.outbox.pendentes / .atraso.segundos / .falhas (gauges),
+ * notificacoes.dispatch.enviadas / .erros / .rejeitadas (counters), .lote (tamanho) e .tempo.
+ */
+@Slf4j
+@Component
+public class NotificationDispatcher {
+
+    private static final long TTL_SECONDS_90_DIAS = 90L * 24L * 60L * 60L;
+    private static final long BACKOFF_MAXIMO_SEGUNDOS = 300;
+
+    private final NotificationOutboxRepository outbox;
+    private final NotificationRepository repo;
+    private final NotificationInboxService inbox;
+    private final NotificationPublisher publisher;
+    private final UsuarioRepository usuarioRepo;
+    private final TransactionTemplate tx;
+
+    private final int workers;
+    private final int tamanhoLote;
+    private final int maxTentativas;
+
+    private final ThreadPoolTaskExecutor pool;
+    private final AtomicInteger emExecucao = new AtomicInteger();
+
+    private final Counter enviadas;
+    private final Counter erros;
+    private final Counter rejeitadas;
+    private final DistributionSummary tamanhoDosLotes;
+    private final Timer tempoDoLote;
+
+    public NotificationDispatcher(NotificationOutboxRepository outbox,
+                                  NotificationRepository repo,
+                                  NotificationInboxService inbox,
+                                  NotificationPublisher publisher,
+                                  UsuarioRepository usuarioRepo,
+                                  PlatformTransactionManager txManager,
+                                  MeterRegistry meters,
+                                  @Value("${app.notificacoes.dispatch.workers:2}") int workers,
+                                  @Value("${app.notificacoes.dispatch.lote:50}") int tamanhoLote,
+                                  @Value("${app.notificacoes.dispatch.max-tentativas:5}") int maxTentativas) {
+        this.outbox = outbox;
+        this.repo = repo;
+        this.inbox = inbox;
+        this.publisher = publisher;
+        this.usuarioRepo = usuarioRepo;
+
+        this.tx = new TransactionTemplate(txManager);
+        this.tx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        this.workers = Math.max(1, workers);
+        this.tamanhoLote = Math.max(1, tamanhoLote);
+        this.maxTentativas = Math.max(1, maxTentativas);
+
+        // fila do tamanho do pool: no máximo um "drenar" esperando por worker, o resto é rejeitado
+        this.pool = new ThreadPoolTaskExecutor();
+        this.pool.setCorePoolSize(this.workers);
+        this.pool.setMaxPoolSize(this.workers);
+        this.pool.setQueueCapacity(this.workers);
+        this.pool.setThreadNamePrefix("notif-dispatch-");
+        this.pool.initialize();
+
+        this.enviadas = meters.counter("notificacoes.dispatch.enviadas");
+        this.erros = meters.counter("notificacoes.dispatch.erros");
+        this.rejeitadas = meters.counter("notificacoes.dispatch.rejeitadas");
+        this.tamanhoDosLotes = DistributionSummary.builder("notificacoes.dispatch.lote").register(meters);
+        this.tempoDoLote = Timer.builder("notificacoes.dispatch.tempo").register(meters);
+
+        Gauge.builder("notificacoes.outbox.pendentes", outbox, o -> o.countByStatus(OutboxStatus.PENDENTE))
+                .register(meters);
+        Gauge.builder("notificacoes.outbox.falhas", outbox, o -> o.countByStatus(OutboxStatus.FALHOU))
+                .register(meters);
+        Gauge.builder("notificacoes.outbox.atraso.segundos", outbox, this::atrasoSegundos)
+                .register(meters);
+        Gauge.builder("notificacoes.dispatch.workers.ativos", emExecucao, AtomicInteger::get)
+                .register(meters);
+    }
+
+    @PreDestroy
+    public void parar() {
+        pool.shutdown();
+    }
+
+    /* ============================ GATILHOS ============================ */
+
+    /** Chamado pelo send(): acorda um worker assim que a transação de negócio commitar. */
+    public void acordarAposCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    acordar();
+                }
+            });
+        } else {
+            acordar();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.notificacoes.dispatch.intervalo-ms:1000}")
+    public void varrer() {
+        acordar();
+    }
+
+    private void acordar() {
+        // todos os workers ocupados: quem está rodando já vai pegar o que chegou
+        if (emExecucao.get() >= workers) return;
+        try {
+            pool.execute(this::drenar);
+        } catch (RejectedExecutionException e) {
+            rejeitadas.increment();
+        }
+    }
+
+    /* ============================ PROCESSAMENTO ============================ */
+
+    private void drenar() {
+        emExecucao.incrementAndGet();
+        try {
+            while (true) {
+                List<Notification> publicar = processarLote();
+                if (publicar == null) return;
+                publicar.forEach(this::publicar);
+            }
+        } catch (Exception e) {
+            log.error("[DISPATCH] Worker interrompido: {}", e.getMessage(), e);
+        } finally {
+            emExecucao.decrementAndGet();
+        }
+    }
+
+    /** @return notificações gravadas (para publicar), ou null se o outbox está vazio */
+    private List<Notification> processarLote() {
+        List<Long> reservados = new ArrayList<>();
+        Timer.Sample inicio = Timer.start();
+        try {
+            List<Notification> salvas = tx.execute(s -> {
+                List<NotificationOutbox> lote = outbox.reservarLote(Instant.now(), tamanhoLote);
+                lote.forEach(o -> reservados.add(o.getId()));
+                return lote.isEmpty() ? null : gravar(lote);
+            });
+            if (salvas != null) {
+                tamanhoDosLotes.record(salvas.size());
+                inicio.stop(tempoDoLote);
+            }
+            return salvas;
+        } catch (Exception e) {
+            if (reservados.isEmpty()) throw e;
+            log.warn("[DISPATCH] Lote de {} falhou ({}), reprocessando um a um", reservados.size(), e.getMessage());
+            return processarIndividualmente(reservados);
+        }
+    }
+
+    private List<Notification> processarIndividualmente(List<Long> ids) {
+        List<Notification> salvas = new ArrayList<>();
+        for (Long id : ids) {
+            try {
+                List<Notification> uma = tx.execute(s -> {
+                    List<NotificationOutbox> item = outbox.reservarUm(id);
+                    return item.isEmpty() ? List.<Notification>of() : gravar(item);
+                });
+                if (uma != null) salvas.addAll(uma);
+            } catch (Exception e) {
+                registrarFalha(id, e);
+            }
+        }
+        // nada passou: para de drenar e deixa a próxima varredura tentar (evita loop quente com banco fora)
+        return salvas.isEmpty() ? null : salvas;
+    }
+
+    private List<Notification> gravar(List<NotificationOutbox> lote) {
+        List<Notification> novas = lote.stream().map(this::toNotification).collect(Collectors.toList());
+
+        // flush: recipients precisam estar no banco para a distribuição em lote
+        List<Notification> salvas = repo.saveAll(novas);
+        repo.flush();
+
+        inbox.distribuir(salvas.stream().map(Notification::getId).collect(Collectors.toList()));
+        outbox.deleteAllInBatch(lote);
+        return salvas;
+    }
+
+    private void registrarFalha(Long id, Exception erro) {
+        erros.increment();
+        try {
+            tx.executeWithoutResult(s -> outbox.findById(id).ifPresent(o -> {
+                int tentativas = o.getTentativas() + 1;
+                long espera = Math.min(BACKOFF_MAXIMO_SEGUNDOS, 1L << Math.min(tentativas, 16));
+
+                o.setTentativas(tentativas);
+                o.setProximaTentativaEm(Instant.now().plusSeconds(espera));
+                o.setUltimoErro(resumo(erro));
+                if (tentativas >= maxTentativas) o.setStatus(OutboxStatus.FALHOU);
+                outbox.save(o);
+
+                log.warn("[DISPATCH] outbox {} falhou (tentativa {}/{}): {}",
+                        id, tentativas, maxTentativas, o.getUltimoErro());
+            }));
+        } catch (Exception e) {
+            log.error("[DISPATCH] Não foi possível registrar falha do outbox {}: {}", id, e.getMessage());
+        }
+    }
+
+    private void publicar(Notification n) {
+        try {
+            publisher.publish(n);
+            enviadas.increment();
+        } catch (Exception e) {
+            log.warn("[DISPATCH] Falha ao publicar notificationId={}: {}", n.getId(), e.getMessage());
+        }
+    }
+
+    /* ============================ MAPEAMENTO ============================ */
+
+    private Notification toNotification(NotificationOutbox o) {
+        Instant criada = o.getCreatedAt() != null ? o.getCreatedAt() : Instant.now();
+
+        String autorJson = o.getAutorJson();
+        if ((autorJson == null || autorJson.isBlank()) && o.getAutorId() != null && o.getAutorId() > 0) {
+            autorJson = buildAutorJson(o.getAutorId());
+        }
+
+        Notification n = new Notification();
+        n.setType(o.getType());
+        n.setTitle(o.getTitle());
+        n.setBody(o.getBody());
+        n.setLink(o.getLink());
+        n.setAction(o.getAction());
+        n.setItemId(o.getItemId());
+        n.setDate(o.getDate());
+        n.setOrigin(o.getOrigin());
+        n.setStatus(NotificationStatus.NOVO);
+        n.setRecipients(parseRecipients(o.getRecipients()));
+        n.setAutorId(o.getAutorId());
+        n.setAutorJson(autorJson);
+        n.setCreatedAt(criada);
+        n.setExpiresAt(criada.plusSeconds(TTL_SECONDS_90_DIAS));
+        return n;
+    }
+
+    private Set<Long> parseRecipients(String csv) {
+        Set<Long> out = new HashSet<>();
+        if (csv == null || csv.isBlank()) return out;
+        Arrays.stream(csv.split(","))
+                .map(String::trim)
+                .filter(v -> !v.isEmpty())
+                .forEach(v -> out.add(Long.parseLong(v)));
+        return out;
+    }
+
+    /** Monta JSON simples do autor usando o banco. */
+    private String buildAutorJson(Long id) {
+        try {
+            Optional<Usuario> opt = usuarioRepo.findById(id);
+            if (opt.isPresent()) {
+                Usuario u = opt.get();
+                String nome = (u.getNome() == null) ? "-" : escape(u.getNome());
+                return "{\"id\":" + u.getId() + ",\"nome\":\"" + nome + "\"}";
+            }
+        } catch (Exception e) {
+            log.warn("[DISPATCH] Falha ao buscar autor {}: {}", id, e.getMessage());
+        }
+        return "{\"id\":" + id + ",\"nome\":\"-\"}";
+    }
+
+    private String escape(String s) {
+        return s == null ? "" : s.replace("\"", "\\\"");
+    }
+
+    private String resumo(Exception e) {
+        String msg = e.getClass().getSimpleName() + ": " + e.getMessage();
+        return msg.length() > 500 ? msg.substring(0, 500) : msg;
+    }
+
+    private double atrasoSegundos(NotificationOutboxRepository o) {
+        Instant maisAntiga = o.findMaisAntiga(OutboxStatus.PENDENTE);
+        return maisAntiga == null ? 0 : Duration.between(maisAntiga, Instant.now()).getSeconds();
+    }
+}
@@ -0,0 +1,14 @@
+package br.com.pousda.pousada.notificacoes.application;
+
+import br.com.pousda.pousada.notificacoes.core.domain.model.Notification;
+
+/**
+ * Leva uma notificação já serializada até os assinantes (STOMP e SSE) de TODOS os nós.
+ *
+ * app.notificacoes.fanout.modo:
+ * - local    (padrão): um nó só, entrega direto na memória.
+ * - postgres: entrega local + LISTEN/NOTIFY para os outros nós.
+ */
+public interface NotificationFanout {
+    void publicar(Notification notification, String json);
+}
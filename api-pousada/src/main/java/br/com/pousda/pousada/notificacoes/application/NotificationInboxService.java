@@ -0,0 +1,150 @@
+package br.com.pousda.pousada.notificacoes.application;
+
+import br.com.pousda.pousada.notificacoes.core.domain.model.Notification;
+import br.com.pousda.pousada.notificacoes.core.infra.model.NotificationRead;
+import br.com.pousda.pousada.notificacoes.core.infra.model.NotificationUnreadCounter;
+import br.com.pousda.pousada.notificacoes.core.infra.repo.NotificationInboxRepository;
+import br.com.pousda.pousada.notificacoes.core.infra.repo.NotificationReadRepository;
+import br.com.pousda.pousada.notificacoes.core.infra.repo.NotificationUnreadCounterRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Caixa de entrada por usuário (notification_inbox) + contador de não lidas.
+ *
+ * - O NotificationDispatcher distribui cada lote para a inbox dos destinatários e soma no contador.
+ * - marcar lida(s) atualiza inbox, contador e notification_reads (que o resto da API ainda lê).
+ * - O contador é recontado no startup e na limpeza noturna (notificações que expiram sem
+ *   serem lidas só saem do badge nessa recontagem).
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class NotificationInboxService {
+
+    private final NotificationInboxRepository inboxRepo;
+    private final NotificationUnreadCounterRepository counterRepo;
+    private final NotificationReadRepository readRepo;
+    private final PlatformTransactionManager txManager;
+
+    /* ============================ ESCRITA ============================ */
+
+    /** Inbox + contador para um lote de notificações recém-gravadas (3 statements por lote). */
+    @Transactional
+    public void distribuir(Collection<Long> notificationIds) {
+        if (notificationIds.isEmpty()) return;
+        Instant now = Instant.now();
+        readRepo.marcarAutoresComoLidos(notificationIds, now);
+        inboxRepo.distribuir(notificationIds, now);
+        counterRepo.incrementarDestinatarios(notificationIds);
+    }
+
+    /** @return true se estava não lida */
+    @Transactional
+    public boolean marcarComoLida(Long uid, Notification n) {
+        Instant now = Instant.now();
+
+        if (!readRepo.findByNotificationAndUserId(n, uid).isPresent()) {
+            readRepo.save(NotificationRead.builder()
+                    .notification(n)
+                    .userId(uid)
+                    .readAt(now)
+                    .build());
+        }
+
+        int alteradas = inboxRepo.marcarLida(uid, n.getId(), now);
+        if (alteradas > 0) counterRepo.decrementar(uid, alteradas);
+        return alteradas > 0;
+    }
+
+    /**
+     * Dois statements fixos, independente de quantas estavam pendentes.
+     * @return quantas notificações passaram de não lida para lida
+     */
+    @Transactional
+    public int marcarTodasComoLidas(Long uid) {
+        Instant now = Instant.now();
+
+        readRepo.inserirLidasEmLote(uid, now);
+        int marcadas = inboxRepo.marcarTodasLidas(uid, now);
+        counterRepo.zerar(uid);
+        return marcadas;
+    }
+
+    /* ============================ LEITURA ============================ */
+
+    @Transactional(readOnly = true)
+    public int naoLidas(Long uid) {
+        return counterRepo.findById(uid).map(NotificationUnreadCounter::getUnread).orElse(0);
+    }
+
+    /** [0]=Notification, [1]=readAt — ativas do usuário, mais recentes primeiro. */
+    @Transactional(readOnly = true)
+    public List<Object[]> ativasDoUsuario(Long uid) {
+        return inboxRepo.findAtivasDoUsuario(uid, Instant.now());
+    }
+
+    /**
+     * Página de ativas do usuário ([0]=Notification, [1]=readAt).
+     * @param lido null = todas, true = só lidas, false = só não lidas
+     */
+    @Transactional(readOnly = true)
+    public Page<Object[]> paginaDoUsuario(Long uid, Boolean lido, String q, int page, int size) {
+        String status = lido == null ? "TODAS" : (lido ? "LIDO" : "NOVO");
+
+        String busca = "";
+        if (q != null && !q.trim().isEmpty()) {
+            String termo = q.trim().toLowerCase(Locale.ROOT)
+                    .replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+            busca = "%" + termo + "%";
+        }
+
+        return inboxRepo.findPaginaDoUsuario(uid, Instant.now(), status, busca, PageRequest.of(page, size));
+    }
+
+    /* ============================ MANUTENÇÃO ============================ */
+
+    // transação própria: se falhar (ex.: banco sem ON CONFLICT), só loga e a aplicação sobe
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconciliarNoStartup() {
+        try {
+            new TransactionTemplate(txManager).executeWithoutResult(s -> {
+                int criadas = inboxRepo.preencherFaltantes();
+                int usuarios = recontar();
+                log.info("[INBOX] Reconciliação: {} linhas criadas, contadores de {} usuários", criadas, usuarios);
+            });
+        } catch (Exception e) {
+            log.warn("[INBOX] Falha na reconciliação da caixa de entrada: {}", e.getMessage());
+        }
+    }
+
+    /** Remove linhas expiradas e reconta os contadores. */
+    @Transactional
+    public void limparExpiradas(Instant now) {
+        int removidas = inboxRepo.deleteByExpiresAtBefore(now);
+        recontar();
+        log.info("[INBOX] {} linhas expiradas removidas", removidas);
+    }
+
+    // upsert em vez de DELETE + INSERT: incremento concorrente não quebra a PK nem conta duas vezes
+    private int recontar() {
+        Instant now = Instant.now();
+        counterRepo.travarParaRecontagem();
+        int usuarios = counterRepo.recontar(now);
+        counterRepo.zerarSemPendentes(now);
+        return usuarios;
+    }
+}
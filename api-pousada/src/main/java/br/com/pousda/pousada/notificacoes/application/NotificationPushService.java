@@ -4,7 +4,13 @@ package br.com.pousda.pousada.notificacoes.application;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 public interface NotificationPushService {
-    SseEmitter subscribe(long userId);
+    /** @param lastEventId último id recebido pelo cliente (reenvia o que veio depois), ou null */
+    SseEmitter subscribe(long userId, String lastEventId);
+
+    default SseEmitter subscribe(long userId) {
+        return subscribe(userId, null);
+    }
+
     void publish(long userId, Object payload);
     void publishAll(Object payload);
 }
@@ -1,15 +1,10 @@
 package br.com.pousda.pousada.notificacoes.application;
 
 import br.com.pousda.pousada.notificacoes.core.domain.enums.NotificationOrigin;
-import br.com.pousda.pousada.notificacoes.core.domain.enums.NotificationStatus;
 import br.com.pousda.pousada.notificacoes.core.domain.enums.NotificationType;
-import br.com.pousda.pousada.notificacoes.core.domain.model.Notification;
-import br.com.pousda.pousada.notificacoes.core.infra.model.NotificationRead;
-import br.com.pousda.pousada.notificacoes.core.infra.repo.NotificationReadRepository;
-import br.com.pousda.pousada.notificacoes.core.infra.repo.NotificationRepository;
+import br.com.pousda.pousada.notificacoes.core.infra.model.NotificationOutbox;
+import br.com.pousda.pousada.notificacoes.core.infra.repo.NotificationOutboxRepository;
 import br.com.pousda.pousada.security.AuthPrincipal;
-import br.com.pousda.pousada.usuarios.domain.Usuario;
-import br.com.pousda.pousada.usuarios.infra.UsuarioRepository;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -21,6 +16,7 @@ import java.time.Instant;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -28,22 +24,19 @@ public class NotificationService {
 
     private static final Logger log = LoggerFactory.getLogger(NotificationService.class);
 
-    private final NotificationRepository repo;
-    private final NotificationPublisher publisher;
-    private final NotificationReadRepository readRepo;
+    private final NotificationOutboxRepository outbox;
+    private final NotificationDispatcher dispatcher;
     private final UsersQueryPort users;              // <-- só a porta (adapter @Primary cuidará da impl)
-    private final UsuarioRepository usuarioRepo;
 
     private static final ZoneId SP = ZoneId.of("America/Sao_Paulo");
     private static final DateTimeFormatter DTF =
             DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm").withZone(SP);
 
-    private static final long TTL_SECONDS_90_DIAS = 90L * 24L * 60L * 60L;
-
     /**
-     * Cria e publica uma nova notificação.
+     * Enfileira uma nova notificação no outbox, na transação de quem chamou (se houver).
+     * Gravação em notifications/inbox e o push WebSocket ficam com o NotificationDispatcher.
      */
-    public Notification send(
+    public void send(
             NotificationType type,
             String title,
             String body,
@@ -58,7 +51,7 @@ public class NotificationService {
     ) {
         final Instant now = Instant.now();
 
-        // -------- autor --------
+        // -------- autor (SecurityContext só existe na thread da requisição) --------
         Long fromCtx = resolveFromSecurityContext();
         Long fromPort = (fromCtx == null) ? resolveFromUsersPort() : null;
 
@@ -68,64 +61,34 @@ public class NotificationService {
         log.debug("[NotificationService] Autor resolvido -> explicit={}, ctx={}, port={}, usado={}",
                 autorId, fromCtx, fromPort, autorId);
 
-        // -------- autorJson --------
-        if ((autorJson == null || autorJson.isBlank()) && autorId != null && autorId > 0) {
-            autorJson = buildAutorJson(autorId);
-        }
-
         // -------- recipients --------
         Set<Long> recips = toLongSet(recipients);
-        log.debug("[NotificationService] Enviando '{}' -> recipients={}, autorId={}, origin={}",
+        log.debug("[NotificationService] Enfileirando '{}' -> recipients={}, autorId={}, origin={}",
                 (type != null ? type.name() : "NULL"), recips, autorId,
                 (origin != null ? origin : NotificationOrigin.AUTOMATICO));
 
-        Notification n = new Notification();
-        n.setType(type);
-        n.setTitle(title);
-        n.setBody(body);
-        n.setLink(link);
-        n.setAction(action);
-        n.setItemId(itemId);
-        n.setDate((dateText != null && !dateText.isBlank()) ? dateText : DTF.format(now));
-        n.setOrigin(origin != null ? origin : NotificationOrigin.AUTOMATICO);
-        n.setStatus(NotificationStatus.NOVO);
-        n.setRecipients(recips);
-        n.setAutorId(autorId);
-        n.setAutorJson(autorJson);
-        n.setCreatedAt(now);
-        n.setExpiresAt(now.plusSeconds(TTL_SECONDS_90_DIAS));
-
-        Notification saved = repo.save(n);
-
-        marcarAutorComoLido(saved);
-        publisher.publish(saved);
-        return saved;
+        NotificationOutbox o = NotificationOutbox.builder()
+                .type(type)
+                .title(title)
+                .body(body)
+                .link(link)
+                .action(action)
+                .itemId(itemId)
+                .date((dateText != null && !dateText.isBlank()) ? dateText : DTF.format(now))
+                .origin(origin != null ? origin : NotificationOrigin.AUTOMATICO)
+                .autorId(autorId)
+                .autorJson(autorJson)   // se vier vazio, o dispatcher monta a partir do banco
+                .recipients(recips.stream().map(String::valueOf).collect(Collectors.joining(",")))
+                .createdAt(now)
+                .proximaTentativaEm(now)
+                .build();
+
+        outbox.save(o);
+        dispatcher.acordarAposCommit();
     }
 
     // ================= helpers =================
 
-    /** Marca o autor como “lido” se ele também for destinatário. */
-    private void marcarAutorComoLido(Notification saved) {
-        try {
-            if (saved.getAutorId() != null &&
-                    saved.getRecipients() != null &&
-                    saved.getRecipients().contains(saved.getAutorId()) &&
-                    !readRepo.findByNotificationAndUserId(saved, saved.getAutorId()).isPresent()) {
-
-                readRepo.save(NotificationRead.builder()
-                        .notification(saved)
-                        .userId(saved.getAutorId())
-                        .readAt(Instant.now())
-                        .build());
-
-                log.debug("[NotificationService] autorId={} marcado como LIDO para notificationId={}",
-                        saved.getAutorId(), saved.getId());
-            }
-        } catch (Exception e) {
-            log.warn("[NotificationService] Falha ao marcar autor como LIDO: {}", e.getMessage());
-        }
-    }
-
     /** Converte qualquer Set<?> em Set<Long> (compatível com Java 11). */
     private Set<Long> toLongSet(Set<?> input) {
         if (input == null) return Collections.emptySet();
@@ -176,27 +139,4 @@ public class NotificationService {
         }
         return null;
     }
-
-    /** Monta JSON simples do autor usando o banco. */
-    private String buildAutorJson(Long id) {
-        try {
-            Optional<Usuario> opt = usuarioRepo.findById(id);
-            if (opt.isPresent()) {
-                Usuario u = opt.get();
-                return asAutorJson(u);
-            }
-        } catch (Exception e) {
-            log.warn("[NotificationService] Falha ao buscar autor {}: {}", id, e.getMessage());
-        }
-        return "{\"id\":" + id + ",\"nome\":\"-\"}";
-    }
-
-    private String asAutorJson(Usuario u) {
-        String nome = (u.getNome() == null) ? "-" : escape(u.getNome());
-        return "{\"id\":" + u.getId() + ",\"nome\":\"" + nome + "\"}";
-    }
-
-    private String escape(String s) {
-        return s == null ? "" : s.replace("\"", "\\\"");
-    }
 }
@@ -0,0 +1,44 @@
+package br.com.pousda.pousada.notificacoes.core.domain.dto;
+
+import br.com.pousda.pousada.notificacoes.core.domain.enums.NotificationOrigin;
+import br.com.pousda.pousada.notificacoes.core.domain.enums.NotificationStatus;
+import br.com.pousda.pousada.notificacoes.core.domain.enums.NotificationType;
+import br.com.pousda.pousada.notificacoes.core.domain.model.Notification;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Payload enxuto do push em tempo real (WebSocket).
+ * Sem destinatários nem autor: cada cliente só recebe o que é dele e busca o detalhe pela API.
+ * Mantém o status do NotificationDTO (o front marca como lida tudo que não for NOVO);
+ * o push só sai na criação, então é sempre NOVO.
+ */
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class NotificationPushDTO {
+    private Long id;
+    private NotificationType type;
+    private String title;
+    private String body;
+    private String link;
+    private String action;
+    private Long itemId;
+    private String date;
+    private NotificationOrigin origin;
+    private NotificationStatus status;
+    private Instant createdAt;
+    private Instant expiresAt;
+
+    public static NotificationPushDTO de(Notification n) {
+        return new NotificationPushDTO(
+                n.getId(), n.getType(), n.getTitle(), n.getBody(), n.getLink(), n.getAction(),
+                n.getItemId(), n.getDate(), n.getOrigin(), NotificationStatus.NOVO,
+                n.getCreatedAt(), n.getExpiresAt());
+    }
+}
@@ -0,0 +1,4 @@
+package br.com.pousda.pousada.notificacoes.core.domain.enums;
+
+
+public enum OutboxStatus { PENDENTE, FALHOU }
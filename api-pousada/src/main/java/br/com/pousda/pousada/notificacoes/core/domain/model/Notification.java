@@ -2,6 +2,7 @@ package br.com.pousda.pousada.notificacoes.core.domain.model;
 
 import br.com.pousda.pousada.notificacoes.core.domain.enums.*;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
 import javax.persistence.*;
 import java.time.Instant;
 import java.util.HashSet;
@@ -48,7 +49,9 @@ public class Notification {
     private NotificationStatus status = NotificationStatus.NOVO;
 
     // ids dos destinatários (EAGER para evitar LazyInitialization ao serializar)
+    // BatchSize: numa página de N notificações, os destinatários vêm em 1 SELECT, não em N
     @ElementCollection(fetch = FetchType.EAGER)
+    @BatchSize(size = 100)
     @CollectionTable(name = "notification_recipients", joinColumns = @JoinColumn(name = "notification_id"))
     @Column(name = "user_id", nullable = false)
     @Builder.Default
@@ -0,0 +1,21 @@
+package br.com.pousda.pousada.notificacoes.core.infra.adapter;
+
+import br.com.pousda.pousada.notificacoes.application.NotificationFanout;
+import br.com.pousda.pousada.notificacoes.core.domain.model.Notification;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/** Instância única: só existem os assinantes deste processo. */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.notificacoes.fanout.modo", havingValue = "local", matchIfMissing = true)
+public class InProcessNotificationFanout implements NotificationFanout {
+
+    private final LocalNotificationDelivery local;
+
+    @Override
+    public void publicar(Notification n, String json) {
+        local.entregar(n.getRecipients(), json);
+    }
+}
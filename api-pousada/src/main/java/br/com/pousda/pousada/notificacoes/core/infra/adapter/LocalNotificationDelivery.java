@@ -0,0 +1,50 @@
+package br.com.pousda.pousada.notificacoes.core.infra.adapter;
+
+import br.com.pousda.pousada.notificacoes.application.NotificationPushService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+
+import java.util.Collection;
+import java.util.Map;
+
+/** Entrega um JSON pronto às sessões STOMP e SSE conectadas NESTE nó. */
+@Slf4j
+@Component
+public class LocalNotificationDelivery {
+
+    static final String DESTINO = "/queue/notifications";
+
+    private static final Map<String, Object> HEADERS =
+            Map.of(MessageHeaders.CONTENT_TYPE, MimeTypeUtils.APPLICATION_JSON);
+
+    private final SimpMessagingTemplate ws;
+    private final NotificationPushService sse;
+    private final Counter mensagens;
+
+    public LocalNotificationDelivery(SimpMessagingTemplate ws, NotificationPushService sse, MeterRegistry metrics) {
+        this.ws = ws;
+        this.sse = sse;
+        this.mensagens = metrics.counter("notificacoes.ws.mensagens");
+    }
+
+    public void entregar(Collection<Long> userIds, String json) {
+        if (userIds == null) return;
+        int enviadas = 0;
+        for (Long uid : userIds) {
+            if (uid == null) continue;
+            try {
+                ws.convertAndSendToUser(String.valueOf(uid), DESTINO, json, HEADERS);
+                enviadas++;
+            } catch (Exception e) {
+                log.warn("Falha ao publicar WS para userId={}: {}", uid, e.getMessage());
+            }
+            sse.publish(uid, json);
+        }
+        mensagens.increment(enviadas);
+    }
+}
@@ -0,0 +1,203 @@
+package br.com.pousda.pousada.notificacoes.core.infra.adapter;
+
+import br.com.pousda.pousada.notificacoes.application.NotificationFanout;
+import br.com.pousda.pousada.notificacoes.core.domain.dto.NotificationPushDTO;
+import br.com.pousda.pousada.notificacoes.core.domain.model.Notification;
+import br.com.pousda.pousada.notificacoes.core.infra.repo.NotificationRepository;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Vários nós atrás do balanceador: cada nó entrega aos seus assinantes e avisa os outros
+ * por NOTIFY no canal pousada_notificacoes.
+ *
+ * - O LISTEN roda numa conexão própria (fora do Hikari, para não prender um slot do pool nem
+ *   disparar o leakDetection) e reconecta sozinho se o banco cair.
+ * - Mensagens do próprio nó são ignoradas (ele já entregou localmente).
+ * - NOTIFY aceita até 8000 bytes: notificação maior vai só com o id e cada nó relê do banco.
+ * - Enquanto o LISTEN de um nó está caído ele perde os pushes; o cliente se corrige pelo
+ *   unread-count/listagem, como já acontece quando a conexão do navegador cai.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.notificacoes.fanout.modo", havingValue = "postgres")
+public class PostgresNotificationFanout implements NotificationFanout {
+
+    static final String CANAL = "pousada_notificacoes";
+    private static final int LIMITE_PAYLOAD = 7900;
+    private static final int ESPERA_MS = 5000;
+    private static final long RECONEXAO_MAXIMA_MS = 30_000;
+
+    private final LocalNotificationDelivery local;
+    private final JdbcTemplate jdbc;
+    private final DataSourceProperties dataSource;
+    private final NotificationRepository repo;
+    private final ObjectMapper mapper;
+
+    private final String noId = UUID.randomUUID().toString().substring(0, 8);
+
+    private final Counter enviadas;
+    private final Counter recebidas;
+    private final Counter erros;
+
+    private volatile boolean ativo;
+    private volatile boolean conectado;
+    private volatile Connection conexao;
+    private Thread ouvinte;
+
+    public PostgresNotificationFanout(LocalNotificationDelivery local,
+                                      JdbcTemplate jdbc,
+                                      DataSourceProperties dataSource,
+                                      NotificationRepository repo,
+                                      ObjectMapper mapper,
+                                      MeterRegistry metrics) {
+        this.local = local;
+        this.jdbc = jdbc;
+        this.dataSource = dataSource;
+        this.repo = repo;
+        this.mapper = mapper;
+        this.enviadas = metrics.counter("notificacoes.fanout.enviadas");
+        this.recebidas = metrics.counter("notificacoes.fanout.recebidas");
+        this.erros = metrics.counter("notificacoes.fanout.erros");
+        metrics.gauge("notificacoes.fanout.conectado", this, f -> f.conectado ? 1 : 0);
+    }
+
+    /* ============================ ENVIO ============================ */
+
+    @Override
+    public void publicar(Notification n, String json) {
+        local.entregar(n.getRecipients(), json);
+
+        try {
+            String texto = mapper.writeValueAsString(new Envelope(noId, n.getRecipients(), json, null));
+            if (texto.getBytes(StandardCharsets.UTF_8).length > LIMITE_PAYLOAD) {
+                texto = mapper.writeValueAsString(new Envelope(noId, n.getRecipients(), null, n.getId()));
+            }
+            final String payload = texto;
+            jdbc.query("SELECT pg_notify(?, ?)", rs -> null, CANAL, payload);
+            enviadas.increment();
+        } catch (Exception e) {
+            erros.increment();
+            log.warn("[FANOUT] Falha ao enviar NOTIFY da notificação {}: {}", n.getId(), e.getMessage());
+        }
+    }
+
+    /* ============================ RECEBIMENTO ============================ */
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciar() {
+        ativo = true;
+        ouvinte = new Thread(this::ouvir, "notif-fanout-listen");
+        ouvinte.setDaemon(true);
+        ouvinte.start();
+        log.info("[FANOUT] Nó {} ouvindo o canal {}", noId, CANAL);
+    }
+
+    @PreDestroy
+    public void parar() {
+        ativo = false;
+        Connection c = conexao;
+        if (c != null) {
+            try { c.close(); } catch (SQLException ignored) { }
+        }
+        if (ouvinte != null) ouvinte.interrupt();
+    }
+
+    private void ouvir() {
+        long espera = 1000;
+        while (ativo) {
+            try (Connection c = DriverManager.getConnection(
+                    dataSource.determineUrl(), dataSource.determineUsername(), dataSource.determinePassword())) {
+                conexao = c;
+                try (Statement st = c.createStatement()) {
+                    st.execute("LISTEN " + CANAL);
+                }
+                PGConnection pg = c.unwrap(PGConnection.class);
+                conectado = true;
+                espera = 1000;
+
+                while (ativo) {
+                    PGNotification[] recebidasAgora = pg.getNotifications(ESPERA_MS);
+                    if (recebidasAgora == null) continue;
+                    for (PGNotification pn : recebidasAgora) receber(pn.getParameter());
+                }
+            } catch (Exception e) {
+                if (!ativo) break;
+                erros.increment();
+                log.warn("[FANOUT] LISTEN interrompido ({}), reconectando em {} ms", e.getMessage(), espera);
+            } finally {
+                conectado = false;
+                conexao = null;
+            }
+
+            try {
+                Thread.sleep(espera);
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            espera = Math.min(RECONEXAO_MAXIMA_MS, espera * 2);
+        }
+    }
+
+    private void receber(String texto) {
+        try {
+            Envelope env = mapper.readValue(texto, Envelope.class);
+            if (noId.equals(env.o)) return;
+
+            String json = env.p != null ? env.p : carregar(env.n);
+            if (json == null) return;
+
+            local.entregar(env.u, json);
+            recebidas.increment();
+        } catch (Exception e) {
+            erros.increment();
+            log.warn("[FANOUT] Mensagem inválida no canal {}: {}", CANAL, e.getMessage());
+        }
+    }
+
+    private String carregar(Long notificationId) throws JsonProcessingException {
+        if (notificationId == null) return null;
+        Notification n = repo.findById(notificationId).orElse(null);
+        return n == null ? null : mapper.writeValueAsString(NotificationPushDTO.de(n));
+    }
+
+    /** o = nó de origem, u = destinatários, p = JSON pronto, n = id (quando p não cabe no NOTIFY) */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    static final class Envelope {
+        public String o;
+        public Set<Long> u;
+        public String p;
+        public Long n;
+
+        Envelope() { }
+
+        Envelope(String o, Set<Long> u, String p, Long n) {
+            this.o = o;
+            this.u = u;
+            this.p = p;
+            this.n = n;
+        }
+    }
+}
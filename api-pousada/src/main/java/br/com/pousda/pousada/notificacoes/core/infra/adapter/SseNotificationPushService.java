@@ -1,75 +1,312 @@
 package br.com.pousda.pousada.notificacoes.core.infra.adapter;
 
 import br.com.pousda.pousada.notificacoes.application.NotificationPushService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.io.IOException;
-import java.time.Instant;
+import javax.annotation.PreDestroy;
+import java.util.ArrayDeque;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 
+/**
+ * SSE por usuário.
+ *
+ * - Um Canal por usuário: conexões abertas + buffer circular dos últimos eventos.
+ * - Ids de evento monotônicos (começam no relógio do startup, então não voltam para trás após restart).
+ * - Reconexão com Last-Event-ID reenvia o que ficou no buffer, sem ir ao banco; se algo depois do id
+ *   já saiu do buffer, manda "resync" para o cliente recarregar a lista.
+ * - Um único agendamento manda o heartbeat para todos os emitters (proxies derrubam stream ocioso)
+ *   e descarta canais sem conexão há mais que a retenção.
+ * - Os ids são por nó: com vários nós, o resume só é exato se o cliente voltar ao mesmo nó.
+ *
+ * Envio: publish só enfileira. Cada conexão tem fila limitada, drenada por um pool próprio
+ * (no máximo uma tarefa por conexão), então cliente lento não trava quem publica.
+ * - fila cheia: a conexão é encerrada; o cliente reconecta com Last-Event-ID e recupera do buffer.
+ * - heartbeat com fila não vazia: descartado (já há dado a caminho).
+ */
 @Slf4j
 @Service
 public class SseNotificationPushService implements NotificationPushService {
 
-    private final Map<Long, CopyOnWriteArrayList<SseEmitter>> emitters = new ConcurrentHashMap<>();
-
     private static final long TIMEOUT_MS = 30 * 60 * 1000;
+    private static final long RECONEXAO_MS = 3000;
+
+    private final Map<Long, Canal> canais = new ConcurrentHashMap<>();
+    private final AtomicLong sequencia = new AtomicLong(System.currentTimeMillis());
+
+    private final int tamanhoBuffer;
+    private final long retencaoMs;
+    private final int tamanhoFila;
+
+    private final ThreadPoolTaskExecutor envio;
+    private final AtomicInteger totalConexoes = new AtomicInteger();
+    private final AtomicInteger pendentes = new AtomicInteger();
+
+    private final Counter enviados;
+    private final Counter erros;
+    private final Counter evictions;
+    private final Counter heartbeatsDescartados;
+
+    public SseNotificationPushService(MeterRegistry meters,
+                                      @Value("${app.notificacoes.sse.buffer:50}") int tamanhoBuffer,
+                                      @Value("${app.notificacoes.sse.retencao-ms:600000}") long retencaoMs,
+                                      @Value("${app.notificacoes.sse.fila:100}") int tamanhoFila,
+                                      @Value("${app.notificacoes.sse.envio-threads:4}") int threads) {
+        this.tamanhoBuffer = Math.max(1, tamanhoBuffer);
+        this.retencaoMs = retencaoMs;
+        this.tamanhoFila = Math.max(1, tamanhoFila);
+
+        // uma tarefa por conexão com envio pendente: a fila do pool cresce no máximo até o nº de conexões
+        this.envio = new ThreadPoolTaskExecutor();
+        this.envio.setCorePoolSize(Math.max(1, threads));
+        this.envio.setMaxPoolSize(Math.max(1, threads));
+        this.envio.setThreadNamePrefix("sse-envio-");
+        this.envio.initialize();
+
+        this.enviados = meters.counter("notificacoes.sse.enviados");
+        this.erros = meters.counter("notificacoes.sse.erros");
+        this.evictions = meters.counter("notificacoes.sse.evictions");
+        this.heartbeatsDescartados = meters.counter("notificacoes.sse.heartbeats.descartados");
+        Gauge.builder("notificacoes.sse.conexoes", totalConexoes, AtomicInteger::get).register(meters);
+        Gauge.builder("notificacoes.sse.fila.pendentes", pendentes, AtomicInteger::get).register(meters);
+    }
+
+    @PreDestroy
+    public void parar() {
+        envio.shutdown();
+    }
 
     @Override
-    public SseEmitter subscribe(long userId) {
+    public SseEmitter subscribe(long userId, String lastEventId) {
         var emitter = new SseEmitter(TIMEOUT_MS);
+        Long ultimo = parseId(lastEventId);
 
-        emitters.computeIfAbsent(userId, k -> new CopyOnWriteArrayList<>()).add(emitter);
+        comCanal(userId, canal -> {
+            Conexao c = new Conexao(emitter);
+            emitter.onCompletion(() -> canal.remover(c));
+            emitter.onTimeout(() -> canal.remover(c));
+            emitter.onError(e -> canal.remover(c));
 
-        emitter.onCompletion(() -> remove(userId, emitter));
-        emitter.onTimeout(() -> remove(userId, emitter));
-        emitter.onError(e -> remove(userId, emitter));
-
-        // envio inicial (keepalive)
-        try {
-            SseEmitter.SseEventBuilder event = SseEmitter.event()
-                    .id(String.valueOf(Instant.now().toEpochMilli()))
+            // conectado + replay entram na fila antes de qualquer publish novo (canal travado)
+            c.enfileirar(SseEmitter.event()
                     .name("connected")
-                    .data("connected");
-            emitter.send(event);
-        } catch (IOException e) {
-            remove(userId, emitter);
-        }
+                    .reconnectTime(RECONEXAO_MS)
+                    .data("connected"));
+            if (ultimo != null) reenviar(canal, c, ultimo);
+            if (c.encerrada.get()) return; // replay maior que a fila
 
+            canal.conexoes.add(c);
+            totalConexoes.incrementAndGet();
+        });
         return emitter;
     }
 
     @Override
     public void publish(long userId, Object payload) {
-        var list = emitters.get(userId);
-        if (list == null || list.isEmpty()) return;
-
-        for (SseEmitter emitter : List.copyOf(list)) {
-            try {
-                emitter.send(SseEmitter.event()
-                        .id(String.valueOf(Instant.now().toEpochMilli()))
-                        .name("notification")
-                        .data(payload));
-            } catch (IOException e) {
-                remove(userId, emitter);
+        comCanal(userId, canal -> {
+            Evento ev = new Evento(sequencia.incrementAndGet(), payload);
+            canal.guardar(ev, tamanhoBuffer);
+            for (Conexao c : canal.conexoes) {
+                if (!c.enfileirar(ev.paraSse())) canal.remover(c);
             }
-        }
+        });
     }
 
     @Override
     public void publishAll(Object payload) {
-        emitters.forEach((uid, list) -> publish(uid, payload));
+        canais.keySet().forEach(uid -> publish(uid, payload));
+    }
+
+    /* ============================ HEARTBEAT ============================ */
+
+    @Scheduled(fixedDelayString = "${app.notificacoes.sse.heartbeat-ms:25000}")
+    public void heartbeat() {
+        long agora = System.currentTimeMillis();
+        int pings = 0;
+
+        for (Iterator<Map.Entry<Long, Canal>> it = canais.entrySet().iterator(); it.hasNext(); ) {
+            Canal canal = it.next().getValue();
+            synchronized (canal) {
+                for (Conexao c : canal.conexoes) {
+                    if (c.heartbeat()) pings++;
+                }
+                if (canal.conexoes.isEmpty() && agora - canal.ultimaAtividade > retencaoMs) {
+                    canal.removido = true;
+                    it.remove();
+                }
+            }
+        }
+        if (pings > 0) log.debug("[SSE] heartbeat: {} conexões, {} canais", pings, canais.size());
+    }
+
+    /* ============================ INTERNOS ============================ */
+
+    /** Executa com o canal travado; refaz se o heartbeat acabou de descartá-lo. */
+    private void comCanal(long userId, Consumer<Canal> acao) {
+        while (true) {
+            Canal canal = canais.computeIfAbsent(userId, k -> new Canal(sequencia.get()));
+            synchronized (canal) {
+                if (canal.removido) continue;
+                acao.accept(canal);
+                return;
+            }
+        }
+    }
+
+    private void reenviar(Canal canal, Conexao c, long ultimo) {
+        // o que havia depois de "ultimo" pode ter se perdido (buffer girou, canal descartado ou restart)
+        if (ultimo < canal.desdeId || ultimo < canal.ultimoDescartado) {
+            c.enfileirar(SseEmitter.event().name("resync").data("resync"));
+        }
+        for (Evento ev : canal.buffer) {
+            if (ev.id > ultimo && !c.enfileirar(ev.paraSse())) {
+                c.encerrar();
+                return;
+            }
+        }
+    }
+
+    private static Long parseId(String s) {
+        if (s == null || s.isBlank()) return null;
+        try { return Long.parseLong(s.trim()); } catch (NumberFormatException e) { return null; }
     }
 
-    private void remove(long userId, SseEmitter emitter) {
-        var list = emitters.get(userId);
-        if (list != null) {
-            list.remove(emitter);
-            if (list.isEmpty()) emitters.remove(userId);
+    private final class Canal {
+        final List<Conexao> conexoes = new CopyOnWriteArrayList<>();
+        final ArrayDeque<Evento> buffer = new ArrayDeque<>();
+        final long desdeId;
+        long ultimoDescartado;
+        boolean removido;
+        volatile long ultimaAtividade = System.currentTimeMillis();
+
+        Canal(long desdeId) {
+            this.desdeId = desdeId;
+        }
+
+        void guardar(Evento ev, int limite) {
+            buffer.addLast(ev);
+            while (buffer.size() > limite) {
+                ultimoDescartado = buffer.removeFirst().id;
+            }
+            ultimaAtividade = System.currentTimeMillis();
+        }
+
+        void remover(Conexao c) {
+            if (conexoes.remove(c)) {
+                totalConexoes.decrementAndGet();
+                ultimaAtividade = System.currentTimeMillis();
+            }
+            c.encerrar();
+        }
+    }
+
+    /** Um emitter + sua fila de envio. No máximo uma drenagem em andamento por conexão. */
+    private final class Conexao {
+        final SseEmitter emitter;
+        final Queue<SseEmitter.SseEventBuilder> fila = new ConcurrentLinkedQueue<>();
+        final AtomicInteger tamanho = new AtomicInteger();
+        final AtomicBoolean drenando = new AtomicBoolean();
+        final AtomicBoolean encerrada = new AtomicBoolean();
+
+        Conexao(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        /** @return false se a conexão deve sair (fila cheia ou já encerrada) */
+        boolean enfileirar(SseEmitter.SseEventBuilder ev) {
+            if (encerrada.get()) return false;
+            if (tamanho.incrementAndGet() > tamanhoFila) {
+                tamanho.decrementAndGet();
+                evictions.increment();
+                log.debug("[SSE] Conexão lenta encerrada (fila com {} eventos)", tamanhoFila);
+                return false;
+            }
+            fila.add(ev);
+            pendentes.incrementAndGet();
+            agendar();
+            return true;
+        }
+
+        /** @return true se o ping foi enfileirado */
+        boolean heartbeat() {
+            if (tamanho.get() > 0) {
+                heartbeatsDescartados.increment();
+                return false;
+            }
+            return enfileirar(SseEmitter.event().comment("ping"));
+        }
+
+        void agendar() {
+            if (!drenando.compareAndSet(false, true)) return;
+            try {
+                envio.execute(this::drenar);
+            } catch (TaskRejectedException e) {
+                drenando.set(false);
+                erros.increment();
+                encerrar();
+            }
+        }
+
+        void drenar() {
+            try {
+                SseEmitter.SseEventBuilder ev;
+                while (!encerrada.get() && (ev = fila.poll()) != null) {
+                    tamanho.decrementAndGet();
+                    pendentes.decrementAndGet();
+                    emitter.send(ev);
+                    enviados.increment();
+                }
+            } catch (Exception e) {
+                erros.increment();
+                encerrar();
+            } finally {
+                drenando.set(false);
+            }
+            // chegou evento entre o último poll e o set(false)
+            if (!encerrada.get() && !fila.isEmpty()) agendar();
+        }
+
+        void encerrar() {
+            if (!encerrada.compareAndSet(false, true)) return;
+            SseEmitter.SseEventBuilder ev;
+            while ((ev = fila.poll()) != null) {
+                tamanho.decrementAndGet();
+                pendentes.decrementAndGet();
+            }
+            try { emitter.complete(); } catch (Exception ignored) { }
+        }
+    }
+
+    private static final class Evento {
+        final long id;
+        final Object data;
+
+        Evento(long id, Object data) {
+            this.id = id;
+            this.data = data;
+        }
+
+        SseEmitter.SseEventBuilder paraSse() {
+            return SseEmitter.event()
+                    .id(String.valueOf(id))
+                    .name("notification")
+                    .data(data);
         }
     }
 }
@@ -4,26 +4,59 @@ package br.com.pousda.pousada.notificacoes.core.infra.adapter;
 import br.com.pousda.pousada.notificacoes.application.UsersQueryPort;
 import br.com.pousda.pousada.security.AuthPrincipal;
 import br.com.pousda.pousada.usuarios.domain.Usuario;
+import br.com.pousda.pousada.usuarios.domain.UsuarioPapeisAlteradosEvent;
 import br.com.pousda.pousada.usuarios.infra.UsuarioRepository;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Primary;
+import org.springframework.context.event.EventListener;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.Duration;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
+/**
+ * Ids de ADMIN/DEV/GERENTE ativos, em cache.
+ *
+ * - Os três conjuntos são carregados juntos na primeira consulta e servidos da memória depois disso
+ *   (resolver destinatários não vai ao banco).
+ * - UsuarioPapeisAlteradosEvent descarta o cache na hora (a própria transação enxerga a mudança) e de
+ *   novo ao terminar a transação (commit ou rollback), para ninguém ficar com uma leitura intermediária.
+ * - TTL como rede de segurança (ex.: alteração feita direto no banco ou por outro nó).
+ */
 @Component
 @Primary // <-- garante que esta é a escolhida
-@RequiredArgsConstructor
 public class UsersQueryAdapter implements UsersQueryPort {
 
     private static final Logger log = LoggerFactory.getLogger(UsersQueryAdapter.class);
     private final UsuarioRepository repo;
+    private final long ttlMillis;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter invalidacoes;
+
+    private volatile Papeis papeis;
+
+    public UsersQueryAdapter(UsuarioRepository repo,
+                             MeterRegistry metrics,
+                             @Value("${app.usuarios.papeis-cache.ttl-segundos:600}") long ttlSegundos) {
+        this.repo = repo;
+        this.ttlMillis = Duration.ofSeconds(Math.max(1, ttlSegundos)).toMillis();
+        this.hits = Counter.builder("usuarios.papeis.cache").tag("resultado", "hit").register(metrics);
+        this.misses = Counter.builder("usuarios.papeis.cache").tag("resultado", "miss").register(metrics);
+        this.invalidacoes = Counter.builder("usuarios.papeis.cache.invalidacoes").register(metrics);
+    }
 
     @Override
     public long currentUserId() {
@@ -55,13 +88,59 @@ public class UsersQueryAdapter implements UsersQueryPort {
     }
 
     @Override
-    public Set<Long> adminIds() { return findByRoleFamily("ADMIN"); }
+    public Set<Long> adminIds() { return papeis().admins; }
 
     @Override
-    public Set<Long> devIds() { return findByRoleFamily("DEV"); }
+    public Set<Long> devIds() { return papeis().devs; }
 
     @Override
-    public Set<Long> gerenteIds() { return findByRoleFamily("GERENTE"); }
+    public Set<Long> gerenteIds() { return papeis().gerentes; }
+
+    /* ============================ CACHE ============================ */
+
+    private Papeis papeis() {
+        Papeis atual = papeis;
+        if (atual != null && !atual.expirado(ttlMillis)) {
+            hits.increment();
+            return atual;
+        }
+        return carregar();
+    }
+
+    private synchronized Papeis carregar() {
+        Papeis atual = papeis;
+        if (atual != null && !atual.expirado(ttlMillis)) {
+            hits.increment();
+            return atual;
+        }
+        misses.increment();
+        Papeis novo = new Papeis(
+                findByRoleFamily("ADMIN"),
+                findByRoleFamily("DEV"),
+                findByRoleFamily("GERENTE"));
+        papeis = novo;
+        return novo;
+    }
+
+    @EventListener
+    public void onPapeisAlterados(UsuarioPapeisAlteradosEvent ev) {
+        invalidar();
+        log.debug("[UsersQueryAdapter] Cache de papéis descartado (usuário {} {})", ev.getUsuarioId(), ev.getMotivo());
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    invalidar();
+                }
+            });
+        }
+    }
+
+    private synchronized void invalidar() {
+        papeis = null;
+        invalidacoes.increment();
+    }
 
     /** Aceita 'ROLE_X' e variações; se vazio, tenta like '%X%'. */
     private Set<Long> findByRoleFamily(String roleBaseUpper) {
@@ -76,6 +155,23 @@ public class UsersQueryAdapter implements UsersQueryPort {
             ids.addAll(like);
         }
         log.debug("[UsersQueryAdapter] {} -> {}", base, ids);
-        return ids;
+        return Collections.unmodifiableSet(ids);
+    }
+
+    private static final class Papeis {
+        final Set<Long> admins;
+        final Set<Long> devs;
+        final Set<Long> gerentes;
+        final long carregadoEm = System.currentTimeMillis();
+
+        Papeis(Set<Long> admins, Set<Long> devs, Set<Long> gerentes) {
+            this.admins = admins;
+            this.devs = devs;
+            this.gerentes = gerentes;
+        }
+
+        boolean expirado(long ttlMillis) {
+            return System.currentTimeMillis() - carregadoEm > ttlMillis;
+        }
     }
 }
@@ -1,31 +1,71 @@
 package br.com.pousda.pousada.notificacoes.core.infra.adapter;
 
 
+import br.com.pousda.pousada.notificacoes.application.NotificationFanout;
 import br.com.pousda.pousada.notificacoes.application.NotificationPublisher;
+import br.com.pousda.pousada.notificacoes.core.domain.dto.NotificationPushDTO;
 import br.com.pousda.pousada.notificacoes.core.domain.model.Notification;
-import lombok.RequiredArgsConstructor;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+
+/**
+ * Push em tempo real só para os destinatários (STOMP /user/{uid}/queue/notifications e SSE).
+ *
+ * A notificação é serializada UMA vez (NotificationPushDTO, sem a lista de destinatários) e o mesmo
+ * JSON segue para o NotificationFanout, que entrega neste nó e, no modo postgres, nos demais.
+ */
 @Slf4j
 @Component
-@RequiredArgsConstructor
 public class WebSocketPublisher implements NotificationPublisher {
 
-    private final SimpMessagingTemplate ws;
+    private final NotificationFanout fanout;
+    private final ObjectMapper mapper;
+
+    private final Counter serializacoes;
+    private final DistributionSummary bytesPorNotificacao;
+    private final DistributionSummary payloadBytes;
+
+    public WebSocketPublisher(NotificationFanout fanout, ObjectMapper mapper, MeterRegistry metrics) {
+        this.fanout = fanout;
+        this.mapper = mapper;
+        this.serializacoes = metrics.counter("notificacoes.ws.serializacoes");
+        this.bytesPorNotificacao = DistributionSummary.builder("notificacoes.ws.bytes.notificacao")
+                .description("Bytes enviados por notificação (payload x destinatários)")
+                .baseUnit("bytes")
+                .register(metrics);
+        this.payloadBytes = DistributionSummary.builder("notificacoes.ws.bytes.payload")
+                .baseUnit("bytes")
+                .register(metrics);
+    }
 
     @Override
     public void publish(Notification n) {
+        Set<Long> destinatarios = n.getRecipients();
+        if (destinatarios == null || destinatarios.isEmpty()) return;
+
+        String json;
         try {
-            ws.convertAndSend("/topic/notifications", n);
-            if (n.getRecipients() != null) {
-                for (Long uid : n.getRecipients()) {
-                    ws.convertAndSend("/user/" + uid + "/queue/notifications", n);
-                }
-            }
-        } catch (Exception e) {
-            log.warn("Falha ao publicar WS: {}", e.getMessage());
+            json = mapper.writeValueAsString(NotificationPushDTO.de(n));
+            serializacoes.increment();
+        } catch (JsonProcessingException e) {
+            log.warn("Falha ao serializar notificação {} para push: {}", n.getId(), e.getMessage());
+            return;
         }
+
+        fanout.publicar(n, json);
+
+        int tamanho = json.getBytes(StandardCharsets.UTF_8).length;
+        payloadBytes.record(tamanho);
+        bytesPorNotificacao.record((double) tamanho * destinatarios.size());
+        log.debug("[WS] notificação {}: 1 serialização, {} bytes x {} destinatários",
+                n.getId(), tamanho, destinatarios.size());
     }
 }
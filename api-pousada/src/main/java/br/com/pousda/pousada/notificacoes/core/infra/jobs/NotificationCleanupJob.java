@@ -1,6 +1,7 @@
 package br.com.pousda.pousada.notificacoes.core.infra.jobs;
 
 import br.com.pousda.pousada.notificacoes.application.NotificationCleanupService;
+import br.com.pousda.pousada.notificacoes.application.NotificationInboxService;
 import br.com.pousda.pousada.notificacoes.core.infra.repo.NotificationRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -8,6 +9,7 @@ import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
 
 @Slf4j
@@ -16,9 +18,11 @@ import java.time.LocalDateTime;
 public class NotificationCleanupJob {
 
     private final NotificationCleanupService cleanupService;
+    private final NotificationInboxService inboxService;
 
     @Scheduled(cron = "0 0 2 * * ?")
     public void removeExpiradas() {
+        inboxService.limparExpiradas(Instant.now());
         cleanupService.cleanUpExpiredNotifications();
     }
 }
\ No newline at end of file
@@ -0,0 +1,31 @@
+package br.com.pousda.pousada.notificacoes.core.infra.jobs;
+
+import br.com.pousda.pousada.util.IndicesRunner;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Índices trigram da busca por texto nas notificações (lower(title|body) LIKE '%x%').
+ * Não há alternativa btree: o termo costuma estar no meio da mensagem. Sem pg_trgm a consulta
+ * continua restrita à caixa do próprio usuário (só o que não expirou) e filtra essas linhas.
+ */
+@Component
+@ConditionalOnProperty(name = "app.indices.notificacoes", havingValue = "true", matchIfMissing = true)
+public class NotificationIndicesRunner extends IndicesRunner {
+
+    public NotificationIndicesRunner(JdbcTemplate jdbc) {
+        super(jdbc, "NOTIF");
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!habilitarTrigram()) return;
+
+        executar("CREATE INDEX IF NOT EXISTS idx_notifications_title_trgm " +
+                "ON notifications USING gin (lower(title) gin_trgm_ops)");
+        executar("CREATE INDEX IF NOT EXISTS idx_notifications_body_trgm " +
+                "ON notifications USING gin (lower(body) gin_trgm_ops)");
+    }
+}
@@ -0,0 +1,38 @@
+package br.com.pousda.pousada.notificacoes.core.infra.model;
+
+import lombok.*;
+
+import javax.persistence.*;
+import java.time.Instant;
+
+/**
+ * Caixa de entrada desnormalizada: uma linha por (destinatário, notificação).
+ * createdAt/expiresAt são cópias da notificação para a listagem ser um range scan
+ * em (user_id, created_at) sem passar por notification_recipients.
+ * Sem FK para notifications: a limpeza de expiradas apaga as duas tabelas em separado.
+ */
+@Entity
+@Table(name = "notification_inbox",
+        uniqueConstraints = @UniqueConstraint(name = "uk_inbox_user_notif", columnNames = {"user_id", "notification_id"}),
+        indexes = @Index(name = "idx_inbox_user_created", columnList = "user_id, created_at"))
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class NotificationInbox {
+
+    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "notification_id", nullable = false)
+    private Long notificationId;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    @Column(name = "read_at")
+    private Instant readAt;
+}
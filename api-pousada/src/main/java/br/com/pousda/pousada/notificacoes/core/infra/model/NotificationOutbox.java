@@ -0,0 +1,69 @@
+package br.com.pousda.pousada.notificacoes.core.infra.model;
+
+import br.com.pousda.pousada.notificacoes.core.domain.enums.NotificationOrigin;
+import br.com.pousda.pousada.notificacoes.core.domain.enums.NotificationType;
+import br.com.pousda.pousada.notificacoes.core.domain.enums.OutboxStatus;
+import lombok.*;
+
+import javax.persistence.*;
+import java.time.Instant;
+
+/**
+ * Notificação ainda não entregue. Gravada na MESMA transação da operação de negócio
+ * (check-in, reserva, lançamento...) e drenada em lotes pelo NotificationDispatcher.
+ */
+@Entity
+@Table(name = "notification_outbox",
+        indexes = @Index(name = "idx_outbox_status_proxima", columnList = "status, proxima_tentativa_em"))
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class NotificationOutbox {
+
+    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 48)
+    private NotificationType type;
+
+    @Column(nullable = false, length = 140)
+    private String title;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String body;
+
+    private String link;
+    private String action;
+    private Long itemId;
+    private String date;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 24)
+    private NotificationOrigin origin;
+
+    private Long autorId;
+
+    @Column(columnDefinition = "TEXT")
+    private String autorJson;
+
+    // ids separados por vírgula: "1,4,7"
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String recipients;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 12)
+    @Builder.Default
+    private OutboxStatus status = OutboxStatus.PENDENTE;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private int tentativas = 0;
+
+    @Column(name = "proxima_tentativa_em", nullable = false)
+    private Instant proximaTentativaEm;
+
+    @Column(length = 500)
+    private String ultimoErro;
+}
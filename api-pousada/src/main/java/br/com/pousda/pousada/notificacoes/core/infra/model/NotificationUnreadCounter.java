@@ -0,0 +1,19 @@
+package br.com.pousda.pousada.notificacoes.core.infra.model;
+
+import lombok.*;
+
+import javax.persistence.*;
+
+/** Contador de não lidas por usuário (badge do header): leitura por PK. */
+@Entity
+@Table(name = "notification_unread_counter")
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor
+public class NotificationUnreadCounter {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(nullable = false)
+    private int unread;
+}
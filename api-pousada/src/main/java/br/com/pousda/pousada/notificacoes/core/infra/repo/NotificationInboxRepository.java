@@ -0,0 +1,88 @@
+package br.com.pousda.pousada.notificacoes.core.infra.repo;
+
+import br.com.pousda.pousada.notificacoes.core.infra.model.NotificationInbox;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface NotificationInboxRepository extends JpaRepository<NotificationInbox, Long> {
+
+    Optional<NotificationInbox> findByUserIdAndNotificationId(Long userId, Long notificationId);
+
+    /** Uma linha por destinatário de cada notificação do lote; o autor já entra como lido. */
+    @Modifying
+    @Query(value = "INSERT INTO notification_inbox (user_id, notification_id, created_at, expires_at, read_at) " +
+            "SELECT r.user_id, n.id, n.created_at, n.expires_at, " +
+            "       CASE WHEN r.user_id = n.autor_id THEN :now ELSE NULL END " +
+            "FROM notification_recipients r JOIN notifications n ON n.id = r.notification_id " +
+            "WHERE n.id IN (:nids) " +
+            "ON CONFLICT (user_id, notification_id) DO NOTHING", nativeQuery = true)
+    int distribuir(@Param("nids") Collection<Long> notificationIds, @Param("now") Instant now);
+
+    /** Carga inicial / autocorreção: cria o que falta a partir de recipients + reads. */
+    @Modifying
+    @Query(value = "INSERT INTO notification_inbox (user_id, notification_id, created_at, expires_at, read_at) " +
+            "SELECT r.user_id, n.id, n.created_at, n.expires_at, nr.read_at " +
+            "FROM notification_recipients r JOIN notifications n ON n.id = r.notification_id " +
+            "LEFT JOIN notification_reads nr ON nr.notification_id = n.id AND nr.user_id = r.user_id " +
+            "ON CONFLICT (user_id, notification_id) DO NOTHING", nativeQuery = true)
+    int preencherFaltantes();
+
+    @Modifying
+    @Query("update NotificationInbox i set i.readAt = :now " +
+            "where i.userId = :uid and i.notificationId = :nid and i.readAt is null")
+    int marcarLida(@Param("uid") Long userId, @Param("nid") Long notificationId, @Param("now") Instant now);
+
+    @Modifying
+    @Query("update NotificationInbox i set i.readAt = :now " +
+            "where i.userId = :uid and i.readAt is null and i.expiresAt > :now")
+    int marcarTodasLidas(@Param("uid") Long userId, @Param("now") Instant now);
+
+    @Modifying
+    @Query("delete from NotificationInbox i where i.expiresAt < :now")
+    int deleteByExpiresAtBefore(@Param("now") Instant now);
+
+    /**
+     * Ativas do usuário, mais recentes primeiro: [0]=Notification, [1]=readAt (null = não lida).
+     * Range scan em idx_inbox_user_created.
+     */
+    @Query("select n, i.readAt from NotificationInbox i, Notification n " +
+            "where n.id = i.notificationId " +
+            "and i.userId = :uid and i.expiresAt > :now " +
+            "order by i.createdAt desc")
+    List<Object[]> findAtivasDoUsuario(@Param("uid") Long userId, @Param("now") Instant now);
+
+    /**
+     * Página da listagem, tudo no banco: status de leitura do usuário, busca e janela.
+     * status: TODAS | NOVO | LIDO. busca: '' ou padrão já em minúsculas ('%texto%'),
+     * atendido pelos índices trigram de NotificationIndicesRunner.
+     */
+    @Query(value = "select n, i.readAt from NotificationInbox i, Notification n " +
+            "where n.id = i.notificationId " +
+            "and i.userId = :uid and i.expiresAt > :now " +
+            "and (:status = 'TODAS' " +
+            "     or (:status = 'LIDO' and i.readAt is not null) " +
+            "     or (:status = 'NOVO' and i.readAt is null)) " +
+            "and (:busca = '' or lower(n.title) like :busca or lower(n.body) like :busca) " +
+            "order by i.createdAt desc",
+            countQuery = "select count(i) from NotificationInbox i, Notification n " +
+                    "where n.id = i.notificationId " +
+                    "and i.userId = :uid and i.expiresAt > :now " +
+                    "and (:status = 'TODAS' " +
+                    "     or (:status = 'LIDO' and i.readAt is not null) " +
+                    "     or (:status = 'NOVO' and i.readAt is null)) " +
+                    "and (:busca = '' or lower(n.title) like :busca or lower(n.body) like :busca)")
+    Page<Object[]> findPaginaDoUsuario(@Param("uid") Long userId,
+                                       @Param("now") Instant now,
+                                       @Param("status") String status,
+                                       @Param("busca") String busca,
+                                       Pageable pageable);
+}
@@ -0,0 +1,28 @@
+package br.com.pousda.pousada.notificacoes.core.infra.repo;
+
+import br.com.pousda.pousada.notificacoes.core.domain.enums.OutboxStatus;
+import br.com.pousda.pousada.notificacoes.core.infra.model.NotificationOutbox;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface NotificationOutboxRepository extends JpaRepository<NotificationOutbox, Long> {
+
+    /** Reserva um lote; SKIP LOCKED deixa outros workers/nós pegarem o lote seguinte. */
+    @Query(value = "SELECT * FROM notification_outbox " +
+            "WHERE status = 'PENDENTE' AND proxima_tentativa_em <= :now " +
+            "ORDER BY id LIMIT :lote FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<NotificationOutbox> reservarLote(@Param("now") Instant now, @Param("lote") int lote);
+
+    @Query(value = "SELECT * FROM notification_outbox " +
+            "WHERE id = :id AND status = 'PENDENTE' FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<NotificationOutbox> reservarUm(@Param("id") Long id);
+
+    long countByStatus(OutboxStatus status);
+
+    @Query("select min(o.createdAt) from NotificationOutbox o where o.status = :status")
+    Instant findMaisAntiga(@Param("status") OutboxStatus status);
+}
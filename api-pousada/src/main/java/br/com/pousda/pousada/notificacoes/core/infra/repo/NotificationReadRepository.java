@@ -3,6 +3,7 @@ package br.com.pousda.pousada.notificacoes.core.infra.repo;
 import br.com.pousda.pousada.notificacoes.core.domain.model.Notification;
 import br.com.pousda.pousada.notificacoes.core.infra.model.NotificationRead;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
@@ -24,4 +25,24 @@ public interface NotificationReadRepository extends JpaRepository<NotificationRe
             "where r.userId = :uid " +
             "and r.notification.id in :ids")
     Set<Long> findIdsLidas(@Param("uid") Long uid, @Param("ids") Collection<Long> ids);
+
+    /**
+     * "Marcar todas como lidas" num único INSERT ... SELECT: cria o registro de leitura para
+     * todas as ativas ainda não lidas do usuário na inbox. Já existentes são ignoradas.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO notification_reads (notification_id, user_id, read_at) " +
+            "SELECT i.notification_id, i.user_id, :now FROM notification_inbox i " +
+            "WHERE i.user_id = :uid AND i.read_at IS NULL AND i.expires_at > :now " +
+            "ON CONFLICT (notification_id, user_id) DO NOTHING", nativeQuery = true)
+    int inserirLidasEmLote(@Param("uid") Long userId, @Param("now") Instant now);
+
+    /** Autor que também é destinatário já nasce com a notificação lida (lote inteiro de uma vez). */
+    @Modifying
+    @Query(value = "INSERT INTO notification_reads (notification_id, user_id, read_at) " +
+            "SELECT n.id, n.autor_id, :now FROM notifications n " +
+            "JOIN notification_recipients r ON r.notification_id = n.id AND r.user_id = n.autor_id " +
+            "WHERE n.id IN (:nids) " +
+            "ON CONFLICT (notification_id, user_id) DO NOTHING", nativeQuery = true)
+    int marcarAutoresComoLidos(@Param("nids") Collection<Long> notificationIds, @Param("now") Instant now);
 }
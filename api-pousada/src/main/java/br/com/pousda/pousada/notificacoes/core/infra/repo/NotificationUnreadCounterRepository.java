@@ -0,0 +1,58 @@
+package br.com.pousda.pousada.notificacoes.core.infra.repo;
+
+import br.com.pousda.pousada.notificacoes.core.infra.model.NotificationUnreadCounter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
+
+public interface NotificationUnreadCounterRepository extends JpaRepository<NotificationUnreadCounter, Long> {
+
+    /** Soma, por destinatário, quantas notificações do lote ele recebeu como não lidas. */
+    @Modifying
+    @Query(value = "INSERT INTO notification_unread_counter (user_id, unread) " +
+            "SELECT i.user_id, COUNT(*) FROM notification_inbox i " +
+            "WHERE i.notification_id IN (:nids) AND i.read_at IS NULL " +
+            "GROUP BY i.user_id " +
+            "ON CONFLICT (user_id) DO UPDATE " +
+            "SET unread = notification_unread_counter.unread + EXCLUDED.unread",
+            nativeQuery = true)
+    int incrementarDestinatarios(@Param("nids") Collection<Long> notificationIds);
+
+    @Modifying
+    @Query(value = "UPDATE notification_unread_counter SET unread = GREATEST(unread - :qtd, 0) " +
+            "WHERE user_id = :uid", nativeQuery = true)
+    int decrementar(@Param("uid") Long userId, @Param("qtd") int quantidade);
+
+    @Modifying
+    @Query(value = "UPDATE notification_unread_counter SET unread = 0 WHERE user_id = :uid", nativeQuery = true)
+    int zerar(@Param("uid") Long userId);
+
+    /* ===== reconciliação (startup e limpeza noturna) ===== */
+
+    /** Segura incrementos concorrentes até o fim da transação (leituras continuam livres). */
+    @Modifying
+    @Query(value = "LOCK TABLE notification_unread_counter IN SHARE ROW EXCLUSIVE MODE", nativeQuery = true)
+    void travarParaRecontagem();
+
+    @Modifying
+    @Query(value = "INSERT INTO notification_unread_counter (user_id, unread) " +
+            "SELECT i.user_id, COUNT(*) FROM notification_inbox i " +
+            "WHERE i.read_at IS NULL AND i.expires_at > :now " +
+            "GROUP BY i.user_id " +
+            "ON CONFLICT (user_id) DO UPDATE SET unread = EXCLUDED.unread",
+            nativeQuery = true)
+    int recontar(@Param("now") Instant now);
+
+    /** Quem não tem mais nenhuma não lida (fora do SELECT de recontar) volta a zero. */
+    @Modifying
+    @Query(value = "UPDATE notification_unread_counter c SET unread = 0 " +
+            "WHERE c.unread <> 0 AND NOT EXISTS (" +
+            "  SELECT 1 FROM notification_inbox i " +
+            "  WHERE i.user_id = c.user_id AND i.read_at IS NULL AND i.expires_at > :now)",
+            nativeQuery = true)
+    int zerarSemPendentes(@Param("now") Instant now);
+}
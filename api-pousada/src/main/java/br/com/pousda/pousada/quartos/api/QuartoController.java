@@ -4,6 +4,7 @@ import br.com.pousda.pousada.quartos.domain.Quarto;
 import br.com.pousda.pousada.quartos.domain.enuns.StatusQuarto;
 import br.com.pousda.pousada.quartos.domain.enuns.TipoQuarto;
 import br.com.pousda.pousada.quartos.application.QuartoService;
+import br.com.pousda.pousada.quartos.application.ocupacao.DisponibilidadeService;
 import br.com.pousda.pousada.reservas.application.ReservaService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
@@ -25,6 +26,7 @@ public class QuartoController {
 
     private final QuartoService quartoService;
     private final ReservaService reservaService;
+    private final DisponibilidadeService disponibilidadeService;
 
     @GetMapping
     public ResponseEntity<List<Quarto>> listarTodos() {
@@ -142,6 +144,23 @@ public class QuartoController {
         }
     }
 
+    /** Busca para o date picker: livres no período, com filtros e total pelas noites. */
+    @GetMapping("/disponibilidade")
+    public ResponseEntity<?> buscarDisponibilidade(
+            @RequestParam("dataEntrada") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataEntrada,
+            @RequestParam("dataSaida") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataSaida,
+            @RequestParam(required = false) TipoQuarto tipo,
+            @RequestParam(required = false) Integer capacidade) {
+        try {
+            if (dataEntrada == null || dataSaida == null || !dataSaida.isAfter(dataEntrada)) {
+                return ResponseEntity.badRequest().body("Data de saída deve ser posterior à data de entrada.");
+            }
+            return ResponseEntity.ok(disponibilidadeService.buscar(dataEntrada, dataSaida, tipo, capacidade));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Erro interno");
+        }
+    }
+
     @GetMapping("/count")
     public ResponseEntity<Long> contarQuartos() {
         try {
@@ -1,5 +1,6 @@
 package br.com.pousda.pousada.quartos.application;
 
+import br.com.pousda.pousada.dashboard.domain.DashboardDadosAlteradosEvent;
 import br.com.pousda.pousada.notificacoes.application.facade.NotifierFacade;
 import br.com.pousda.pousada.quartos.domain.Quarto;
 import br.com.pousda.pousada.quartos.domain.enuns.StatusQuarto;
@@ -8,6 +9,7 @@ import br.com.pousda.pousada.quartos.dtos.QuartoChangeSet;
 import br.com.pousda.pousada.quartos.infra.QuartoRepository;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -28,6 +30,9 @@ public class QuartoService {
     @Autowired(required = false)
     private NotifierFacade notifier;
 
+    @Autowired
+    private ApplicationEventPublisher eventos;
+
     // ================== CONSULTAS ==================
 
     public List<Quarto> listarTodos() { return quartoRepository.findAll(); }
@@ -84,6 +89,7 @@ public class QuartoService {
         quarto.setDataManutencaoDesde(null);
 
         Quarto salvo = quartoRepository.save(quarto);
+        eventos.publishEvent(new DashboardDadosAlteradosEvent("QUARTO"));
 
         dispararNotificacao(() -> { if (notifier != null) notifier.quartoCriado(salvo); });
 
@@ -144,6 +150,7 @@ public class QuartoService {
         }
 
         Quarto salvo = quartoRepository.save(existente);
+        eventos.publishEvent(new DashboardDadosAlteradosEvent("QUARTO"));
 
         dispararNotificacao(() -> {
             if (notifier != null) {
@@ -173,6 +180,7 @@ public class QuartoService {
 
         quarto.entrarEmManutencao();
         Quarto salvo = quartoRepository.save(quarto);
+        eventos.publishEvent(new DashboardDadosAlteradosEvent("QUARTO"));
 
         dispararNotificacao(() -> {
             if (notifier != null) {
@@ -199,6 +207,7 @@ public class QuartoService {
 
         quarto.liberarManutencao();
         Quarto salvo = quartoRepository.save(quarto);
+        eventos.publishEvent(new DashboardDadosAlteradosEvent("QUARTO"));
 
         dispararNotificacao(() -> {
             if (notifier != null) {
@@ -224,6 +233,7 @@ public class QuartoService {
 
         dispararNotificacao(() -> { if (notifier != null) notifier.quartoExcluido(quarto); });
         quartoRepository.delete(quarto);
+        eventos.publishEvent(new DashboardDadosAlteradosEvent("QUARTO"));
     }
 
     @Transactional
@@ -237,6 +247,7 @@ public class QuartoService {
 
         quarto.ocupar();
         quartoRepository.save(quarto);
+        eventos.publishEvent(new DashboardDadosAlteradosEvent("QUARTO"));
     }
 
     @Transactional
@@ -250,6 +261,7 @@ public class QuartoService {
 
         quarto.desocupar();
         Quarto salvo = quartoRepository.save(quarto);
+        eventos.publishEvent(new DashboardDadosAlteradosEvent("QUARTO"));
 
         dispararNotificacao(() -> { if (notifier != null) notifier.quartoVoltouDisponivel(salvo); });
     }
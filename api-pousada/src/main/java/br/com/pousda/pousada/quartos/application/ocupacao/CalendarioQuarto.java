@@ -0,0 +1,79 @@
+package br.com.pousda.pousada.quartos.application.ocupacao;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+
+/**
+ * Intervalos [inicio, fimExclusivo) de UM quarto, ordenados por data de início.
+ *
+ * Para responder overlap sem varrer o histórico, guardamos a maior duração já vista:
+ * só podem cruzar [ini, fim) os intervalos que começam em [ini - maiorDuracao, fim).
+ * Ao remover o intervalo mais longo, a maior duração é recalculada para a janela voltar a encolher.
+ * Sem data de saída (legado) vale [entrada, entrada+1), como em intervalosOcupacaoEntre;
+ * sem data de entrada o registro não ocupa nada, igual à checagem do banco.
+ */
+final class CalendarioQuarto {
+
+    private static final Comparator<Intervalo> ORDEM =
+            Comparator.comparing((Intervalo i) -> i.inicio).thenComparing(i -> i.id);
+
+    private final NavigableSet<Intervalo> intervalos = new TreeSet<>(ORDEM);
+    private final Map<Long, Intervalo> porId = new HashMap<>();
+    private long maiorDuracaoDias;
+
+    synchronized void colocar(Long id, LocalDate inicio, LocalDate fimExclusivo) {
+        remover(id);
+
+        if (inicio == null) return;
+        if (fimExclusivo == null) fimExclusivo = inicio.plusDays(1);
+
+        Intervalo novo = new Intervalo(id, inicio, fimExclusivo);
+        intervalos.add(novo);
+        porId.put(id, novo);
+
+        if (novo.dias() > maiorDuracaoDias) maiorDuracaoDias = novo.dias();
+    }
+
+    synchronized void remover(Long id) {
+        Intervalo antigo = porId.remove(id);
+        if (antigo == null) return;
+        intervalos.remove(antigo);
+        if (antigo.dias() >= maiorDuracaoDias) {
+            long maior = 0;
+            for (Intervalo i : intervalos) maior = Math.max(maior, i.dias());
+            maiorDuracaoDias = maior;
+        }
+    }
+
+    synchronized boolean temConflito(LocalDate inicio, LocalDate fimExclusivo, Long ignorarId) {
+        Intervalo de = new Intervalo(Long.MIN_VALUE, inicio.minusDays(maiorDuracaoDias), null);
+        Intervalo ate = new Intervalo(Long.MIN_VALUE, fimExclusivo, null);
+
+        for (Intervalo i : intervalos.subSet(de, true, ate, false)) {
+            if (i.id.equals(ignorarId)) continue;
+            if (i.fimExclusivo.isAfter(inicio)) return true;
+        }
+        return false;
+    }
+
+    private static final class Intervalo {
+        final Long id;
+        final LocalDate inicio;
+        final LocalDate fimExclusivo;
+
+        Intervalo(Long id, LocalDate inicio, LocalDate fimExclusivo) {
+            this.id = id;
+            this.inicio = inicio;
+            this.fimExclusivo = fimExclusivo;
+        }
+
+        long dias() {
+            return ChronoUnit.DAYS.between(inicio, fimExclusivo);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package br.com.pousda.pousada.quartos.application.ocupacao;
+
+import br.com.pousda.pousada.quartos.domain.Quarto;
+import br.com.pousda.pousada.quartos.domain.enuns.TipoQuarto;
+import br.com.pousda.pousada.quartos.dtos.QuartoDisponivelDTO;
+import br.com.pousda.pousada.quartos.infra.QuartoRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * "Quais quartos estão livres em [entrada, saida)?"
+ *
+ * Uma única query traz os candidatos (fora de manutenção, já filtrados por tipo/capacidade);
+ * reservas PENDENTE/CONFIRMADA e hospedagens são checadas no OcupacaoQuartoIndex, em memória.
+ * Hospedagem sem data de saída ocupa só o dia da entrada; sem data de entrada, não ocupa.
+ * É uma resposta de consulta: quem grava (check-in, reserva) confere o conflito de novo no banco.
+ */
+@Service
+@RequiredArgsConstructor
+public class DisponibilidadeService {
+
+    private final QuartoRepository quartoRepository;
+    private final OcupacaoQuartoIndex ocupacao;
+
+    @Transactional(readOnly = true)
+    public List<Quarto> quartosLivres(LocalDate entrada, LocalDate saida, TipoQuarto tipo, Integer capacidadeMinima) {
+        return quartoRepository.findCandidatosDisponibilidade(tipo, capacidadeMinima).stream()
+                .filter(q -> estaLivre(q.getId(), entrada, saida))
+                .collect(Collectors.toList());
+    }
+
+    @Transactional(readOnly = true)
+    public List<QuartoDisponivelDTO> buscar(LocalDate entrada, LocalDate saida, TipoQuarto tipo, Integer capacidadeMinima) {
+        long noites = Math.max(ChronoUnit.DAYS.between(entrada, saida), 1);
+        return quartosLivres(entrada, saida, tipo, capacidadeMinima).stream()
+                .map(q -> toDTO(q, noites))
+                .collect(Collectors.toList());
+    }
+
+    public boolean estaLivre(Long quartoId, LocalDate entrada, LocalDate saida) {
+        return !ocupacao.temReservaConflitante(quartoId, entrada, saida, null)
+                && !ocupacao.temHospedagemConflitante(quartoId, entrada, saida, null);
+    }
+
+    private QuartoDisponivelDTO toDTO(Quarto q, long noites) {
+        BigDecimal diaria = q.getValorDiaria() != null ? q.getValorDiaria() : BigDecimal.ZERO;
+        return new QuartoDisponivelDTO(
+                q.getId(), q.getNumero(), q.getNome(), q.getTipo(), q.getCapacidade(),
+                diaria, noites, diaria.multiply(BigDecimal.valueOf(noites))
+        );
+    }
+}
@@ -0,0 +1,240 @@
+package br.com.pousda.pousada.quartos.application.ocupacao;
+
+import br.com.pousda.pousada.hospedagens.domain.Hospedagem;
+import br.com.pousda.pousada.hospedagens.infra.HospedagemRepository;
+import br.com.pousda.pousada.reservas.domain.Reserva;
+import br.com.pousda.pousada.reservas.domain.StatusReserva;
+import br.com.pousda.pousada.reservas.infra.ReservaRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Índice em memória de ocupação por quarto (hospedagens + reservas PENDENTE/CONFIRMADA).
+ *
+ * - Carregado no startup e reconstruído a cada app.ocupacao.recarga-ms (padrão 10 min), o que
+ *   também traz o que outras instâncias gravaram.
+ * - Alterações só entram no índice APÓS o commit da transação que as gerou. Durante uma recarga
+ *   elas vão para o índice atual e para uma fila, reaplicada no novo antes da troca.
+ * - Serve só leituras (busca de disponibilidade). É local a cada instância e pode ficar
+ *   defasado até a próxima recarga, então check-in/edição confirmam o conflito no banco.
+ */
+@Slf4j
+@Component
+public class OcupacaoQuartoIndex {
+
+    static final List<StatusReserva> STATUS_QUE_BLOQUEIAM =
+            List.of(StatusReserva.PENDENTE, StatusReserva.CONFIRMADA);
+
+    private final HospedagemRepository hospedagemRepository;
+    private final ReservaRepository reservaRepository;
+    private final TransactionTemplate leitura;
+
+    private final Object trava = new Object();
+    private volatile Indice atual = new Indice();
+    private List<Consumer<Indice>> pendentesDaRecarga; // != null enquanto recarrega (guardado por trava)
+
+    public OcupacaoQuartoIndex(HospedagemRepository hospedagemRepository,
+                               ReservaRepository reservaRepository,
+                               PlatformTransactionManager txManager) {
+        this.hospedagemRepository = hospedagemRepository;
+        this.reservaRepository = reservaRepository;
+        // as duas consultas no mesmo snapshot
+        this.leitura = new TransactionTemplate(txManager);
+        this.leitura.setReadOnly(true);
+        this.leitura.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    }
+
+    /* ============================ CARGA ============================ */
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregarNoStartup() {
+        recarregar();
+    }
+
+    @Scheduled(initialDelayString = "${app.ocupacao.recarga-ms:600000}",
+            fixedDelayString = "${app.ocupacao.recarga-ms:600000}")
+    public void reconstruirPeriodicamente() {
+        recarregar();
+    }
+
+    public synchronized void recarregar() {
+        synchronized (trava) {
+            pendentesDaRecarga = new ArrayList<>();
+        }
+
+        Indice novo = new Indice();
+        int[] qtd = new int[2];
+        try {
+            leitura.executeWithoutResult(s -> {
+                List<Object[]> hosp = hospedagemRepository.findIntervalosAtivos();
+                for (Object[] r : hosp) {
+                    novo.colocarHospedagem((Long) r[0], (Long) r[1], (LocalDate) r[2], (LocalDate) r[3]);
+                }
+
+                List<Object[]> res = reservaRepository.findIntervalosPorStatus(STATUS_QUE_BLOQUEIAM);
+                for (Object[] r : res) {
+                    novo.colocarReserva((Long) r[0], (Long) r[1], (LocalDate) r[2], (LocalDate) r[3]);
+                }
+                qtd[0] = hosp.size();
+                qtd[1] = res.size();
+            });
+        } catch (RuntimeException e) {
+            synchronized (trava) {
+                pendentesDaRecarga = null;
+            }
+            throw e;
+        }
+
+        int reaplicadas;
+        synchronized (trava) {
+            // o que commitou durante a carga pode não estar no snapshot: reaplica na ordem (idempotente)
+            reaplicadas = pendentesDaRecarga.size();
+            pendentesDaRecarga.forEach(m -> m.accept(novo));
+            pendentesDaRecarga = null;
+            atual = novo;
+        }
+        log.info("[OCUPACAO] Índice carregado: {} hospedagens, {} reservas, {} alterações reaplicadas",
+                qtd[0], qtd[1], reaplicadas);
+    }
+
+    /* ============================ CONSULTAS ============================ */
+
+    public boolean temHospedagemConflitante(Long quartoId, LocalDate inicio, LocalDate fimExclusivo,
+                                            Long ignorarHospedagemId) {
+        Indice i = atual;
+        return i.temConflito(i.hospedagens, quartoId, inicio, fimExclusivo, ignorarHospedagemId);
+    }
+
+    public boolean temReservaConflitante(Long quartoId, LocalDate inicio, LocalDate fimExclusivo,
+                                         Long ignorarReservaId) {
+        Indice i = atual;
+        return i.temConflito(i.reservas, quartoId, inicio, fimExclusivo, ignorarReservaId);
+    }
+
+    /* ============================ ATUALIZAÇÕES ============================ */
+
+    /** Check-in, edição ou checkout: aplica o estado atual da hospedagem após o commit. */
+    public void hospedagemSalva(Hospedagem h) {
+        if (h == null || h.getId() == null) return;
+
+        final Long id = h.getId();
+        final Long quartoId = h.getQuarto() != null ? h.getQuarto().getId() : null;
+        final LocalDate entrada = h.getDataEntrada();
+        final LocalDate saida = h.getDataSaida();
+        final boolean cancelada = Boolean.TRUE.equals(h.getCancelada()) || Boolean.TRUE.equals(h.getCancelado());
+
+        aposCommit(i -> {
+            if (cancelada || quartoId == null) i.removerHospedagem(id);
+            else i.colocarHospedagem(id, quartoId, entrada, saida);
+        });
+    }
+
+    public void hospedagemRemovida(Long hospedagemId) {
+        if (hospedagemId == null) return;
+        aposCommit(i -> i.removerHospedagem(hospedagemId));
+    }
+
+    /** Criação, edição, confirmação ou cancelamento da reserva. */
+    public void reservaSalva(Reserva r) {
+        if (r == null || r.getId() == null) return;
+
+        final Long id = r.getId();
+        final Long quartoId = r.getQuarto() != null ? r.getQuarto().getId() : null;
+        final LocalDate entrada = r.getDataEntrada();
+        final LocalDate saida = r.getDataSaida();
+        final boolean bloqueia = STATUS_QUE_BLOQUEIAM.contains(r.getStatus());
+
+        aposCommit(i -> {
+            if (!bloqueia || quartoId == null) i.removerReserva(id);
+            else i.colocarReserva(id, quartoId, entrada, saida);
+        });
+    }
+
+    private void aposCommit(Consumer<Indice> alteracao) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    aplicar(alteracao);
+                }
+            });
+        } else {
+            aplicar(alteracao);
+        }
+    }
+
+    private void aplicar(Consumer<Indice> alteracao) {
+        synchronized (trava) {
+            alteracao.accept(atual);
+            if (pendentesDaRecarga != null) pendentesDaRecarga.add(alteracao);
+        }
+    }
+
+    /* ============================ ESTRUTURA ============================ */
+
+    private static final class Indice {
+        final Map<Long, CalendarioQuarto> hospedagens = new ConcurrentHashMap<>();
+        final Map<Long, CalendarioQuarto> reservas = new ConcurrentHashMap<>();
+
+        // id -> quarto, para tirar do calendário antigo quando o quarto muda
+        final Map<Long, Long> quartoDaHospedagem = new ConcurrentHashMap<>();
+        final Map<Long, Long> quartoDaReserva = new ConcurrentHashMap<>();
+
+        void colocarHospedagem(Long id, Long quartoId, LocalDate entrada, LocalDate saida) {
+            colocar(hospedagens, quartoDaHospedagem, id, quartoId, entrada, saida);
+        }
+
+        void colocarReserva(Long id, Long quartoId, LocalDate entrada, LocalDate saida) {
+            colocar(reservas, quartoDaReserva, id, quartoId, entrada, saida);
+        }
+
+        void removerHospedagem(Long id) {
+            remover(hospedagens, quartoDaHospedagem, id);
+        }
+
+        void removerReserva(Long id) {
+            remover(reservas, quartoDaReserva, id);
+        }
+
+        boolean temConflito(Map<Long, CalendarioQuarto> calendarios, Long quartoId,
+                            LocalDate inicio, LocalDate fimExclusivo, Long ignorarId) {
+            if (quartoId == null || inicio == null || fimExclusivo == null) return false;
+            CalendarioQuarto cal = calendarios.get(quartoId);
+            return cal != null && cal.temConflito(inicio, fimExclusivo, ignorarId);
+        }
+
+        private void colocar(Map<Long, CalendarioQuarto> calendarios, Map<Long, Long> quartoPorId,
+                             Long id, Long quartoId, LocalDate inicio, LocalDate fim) {
+            if (id == null || quartoId == null) return;
+
+            Long anterior = quartoPorId.put(id, quartoId);
+            if (anterior != null && !anterior.equals(quartoId)) {
+                CalendarioQuarto velho = calendarios.get(anterior);
+                if (velho != null) velho.remover(id);
+            }
+            calendarios.computeIfAbsent(quartoId, k -> new CalendarioQuarto()).colocar(id, inicio, fim);
+        }
+
+        private void remover(Map<Long, CalendarioQuarto> calendarios, Map<Long, Long> quartoPorId, Long id) {
+            Long quartoId = quartoPorId.remove(id);
+            if (quartoId == null) return;
+            CalendarioQuarto cal = calendarios.get(quartoId);
+            if (cal != null) cal.remover(id);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package br.com.pousda.pousada.quartos.dtos;
+
+import br.com.pousda.pousada.quartos.domain.enuns.TipoQuarto;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class QuartoDisponivelDTO {
+
+    private Long id;
+    private String numero;
+    private String nome;
+    private TipoQuarto tipo;
+    private Integer capacidade;
+
+    private BigDecimal valorDiaria;
+    private long noites;
+    private BigDecimal valorTotal; // valorDiaria * noites
+}
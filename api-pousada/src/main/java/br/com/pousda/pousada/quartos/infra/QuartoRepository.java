@@ -37,6 +37,15 @@ public interface QuartoRepository extends JpaRepository<Quarto, Long> {
     @Query("SELECT q FROM Quarto q WHERE q.status = 'MANUTENCAO' AND q.dataManutencaoDesde <= :dataLimite")
     List<Quarto> findEmManutencaoDesdeOuAntes(@Param("dataLimite") LocalDate dataLimite);
 
+    // candidatos da busca de disponibilidade (conflitos de data são resolvidos no índice de ocupação)
+    @Query("SELECT q FROM Quarto q " +
+            "WHERE q.status <> br.com.pousda.pousada.quartos.domain.enuns.StatusQuarto.MANUTENCAO " +
+            "AND (:tipo IS NULL OR q.tipo = :tipo) " +
+            "AND (:capacidade IS NULL OR q.capacidade >= :capacidade) " +
+            "ORDER BY q.numero")
+    List<Quarto> findCandidatosDisponibilidade(@Param("tipo") TipoQuarto tipo,
+                                               @Param("capacidade") Integer capacidade);
+
     @Query("SELECT COUNT(q) FROM Quarto q WHERE q.status = :status")
     long countByStatus(@Param("status") StatusQuarto status);
 
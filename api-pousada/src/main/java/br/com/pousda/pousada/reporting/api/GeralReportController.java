@@ -1,8 +1,10 @@
 package br.com.pousda.pousada.reporting.api;
 
-import br.com.pousda.pousada.reporting.application.GeralReportService;
 import br.com.pousda.pousada.reporting.application.PdfRendererService;
+import br.com.pousda.pousada.reporting.application.RelatorioCsvService;
+import br.com.pousda.pousada.reporting.application.RelatorioModelos;
 import br.com.pousda.pousada.reporting.domain.contracts.common.PeriodoFilter;
+import br.com.pousda.pousada.reporting.domain.contracts.jobs.RelatorioTipo;
 import br.com.pousda.pousada.security.AuthPrincipal;
 import br.com.pousda.pousada.security.SecurityUtils;
 import lombok.RequiredArgsConstructor;
@@ -13,10 +15,10 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
-import java.util.HashMap;
 import java.util.Map;
 
 @Slf4j
@@ -25,12 +27,13 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class GeralReportController {
 
-    private final GeralReportService service;
+    private final RelatorioModelos modelos;
     private final PdfRendererService pdf;
+    private final RelatorioCsvService csv;
 
     @PostMapping(value = "/export", produces = MediaType.APPLICATION_PDF_VALUE)
     @PreAuthorize("hasAnyRole('ADMIN','DEV')")
-    public ResponseEntity<byte[]> export(@RequestBody PeriodoFilter f) {
+    public ResponseEntity<StreamingResponseBody> export(@RequestBody PeriodoFilter f) {
 
         AuthPrincipal currentUser = SecurityUtils.getCurrentAuthPrincipal();
         String userRole = currentUser.getRole();
@@ -41,23 +44,43 @@ public class GeralReportController {
 
         String geradoPor = currentUser.getUsername() + " | " + currentUser.getId();
 
-        var dto = service.gerar(f.getDataInicio(), f.getDataFim(), geradoPor);
+        Map<String, Object> model = modelos.montar(RelatorioTipo.GERAL, f, geradoPor);
+        StreamingResponseBody body = pdf.stream(RelatorioTipo.GERAL.getTemplate(), model);
 
-        Map<String, Object> model = new HashMap<>();
-        model.put("r", dto);
+        String fn = modelos.nomeArquivo(RelatorioTipo.GERAL, f);
+        String cd = "attachment; filename*=UTF-8''" + URLEncoder.encode(fn, StandardCharsets.UTF_8);
+
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, cd)
+                .contentType(MediaType.APPLICATION_PDF)
+                .body(body);
+    }
+
+    /** Mesmo filtro do PDF, em CSV (abre no Excel). As linhas são escritas conforme saem do banco. */
+    @PostMapping(value = "/export/csv", produces = "text/csv")
+    @PreAuthorize("hasAnyRole('ADMIN','DEV')")
+    public ResponseEntity<StreamingResponseBody> exportCsv(@RequestBody PeriodoFilter f) {
+
+        AuthPrincipal currentUser = SecurityUtils.getCurrentAuthPrincipal();
+        String userRole = currentUser.getRole();
 
-        // ✅ IMPORTANTE: sem isso, o fragment quebra
-        model.put("pousadaNome", "Pousada do Brejo");
-        model.put("pousadaSubtitulo", "Sistema de Gestão • Relatórios");
+        log.info("Tentativa de exportar RELATÓRIO GERAL (CSV) por usuário: {}, Role: {}",
+                currentUser.getUsername(), userRole);
 
-        byte[] bytes = pdf.render("pdf/geral", model);
+        if (!"ROLE_ADMIN".equals(userRole) && !"ROLE_DEV".equals(userRole)) {
+            throw new AccessDeniedException("Acesso negado para geração de relatórios");
+        }
 
-        String fn = String.format("geral_%s_a_%s.pdf", dto.getDataInicio(), dto.getDataFim());
+        String geradoPor = currentUser.getUsername() + " | " + currentUser.getId();
+
+        StreamingResponseBody body = csv.geral(f, geradoPor);
+
+        String fn = String.format("geral_%s_a_%s.csv", f.getDataInicio(), f.getDataFim());
         String cd = "attachment; filename*=UTF-8''" + URLEncoder.encode(fn, StandardCharsets.UTF_8);
 
         return ResponseEntity.ok()
                 .header(HttpHeaders.CONTENT_DISPOSITION, cd)
-                .contentType(MediaType.APPLICATION_PDF)
-                .body(bytes);
+                .contentType(RelatorioCsvService.TEXT_CSV)
+                .body(body);
     }
 }
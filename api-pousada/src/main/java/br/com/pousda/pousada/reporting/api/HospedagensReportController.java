@@ -1,8 +1,10 @@
 package br.com.pousda.pousada.reporting.api;
 
-import br.com.pousda.pousada.reporting.application.HospedagensReportService;
 import br.com.pousda.pousada.reporting.application.PdfRendererService;
+import br.com.pousda.pousada.reporting.application.RelatorioCsvService;
+import br.com.pousda.pousada.reporting.application.RelatorioModelos;
 import br.com.pousda.pousada.reporting.domain.contracts.hospedagens.HospedagensFilter;
+import br.com.pousda.pousada.reporting.domain.contracts.jobs.RelatorioTipo;
 import br.com.pousda.pousada.security.AuthPrincipal;
 import br.com.pousda.pousada.security.SecurityUtils;
 import lombok.RequiredArgsConstructor;
@@ -13,10 +15,10 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
-import java.util.HashMap;
 import java.util.Map;
 
 @Slf4j
@@ -25,12 +27,13 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class HospedagensReportController {
 
-    private final HospedagensReportService service;
+    private final RelatorioModelos modelos;
     private final PdfRendererService pdf;
+    private final RelatorioCsvService csv;
 
     @PostMapping(value = "/export", produces = MediaType.APPLICATION_PDF_VALUE)
     @PreAuthorize("hasAnyRole('ADMIN','DEV')") // ✅ somente ADMIN + DEV
-    public ResponseEntity<byte[]> export(@RequestBody HospedagensFilter f) {
+    public ResponseEntity<StreamingResponseBody> export(@RequestBody HospedagensFilter f) {
 
         // Usuário logado
         AuthPrincipal currentUser = SecurityUtils.getCurrentAuthPrincipal();
@@ -50,21 +53,41 @@ public class HospedagensReportController {
         Long id = currentUser.getId();
         String geradoPor = username + " | " + id;
 
-        var dto = service.gerar(f, geradoPor);
+        Map<String, Object> model = modelos.montar(RelatorioTipo.HOSPEDAGENS, f, geradoPor);
+        StreamingResponseBody body = pdf.stream(RelatorioTipo.HOSPEDAGENS.getTemplate(), model);
 
-        Map<String, Object> model = new HashMap<>();
-        model.put("r", dto);
+        String fn = modelos.nomeArquivo(RelatorioTipo.HOSPEDAGENS, f);
+        String cd = "attachment; filename*=UTF-8''" + URLEncoder.encode(fn, StandardCharsets.UTF_8);
 
-        byte[] bytes = pdf.render("pdf/hospedagens", model);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, cd)
+                .contentType(MediaType.APPLICATION_PDF)
+                .body(body);
+    }
+
+    /** Mesmo filtro do PDF, em CSV (abre no Excel). As linhas são escritas conforme saem do banco. */
+    @PostMapping(value = "/export/csv", produces = "text/csv")
+    @PreAuthorize("hasAnyRole('ADMIN','DEV')")
+    public ResponseEntity<StreamingResponseBody> exportCsv(@RequestBody HospedagensFilter f) {
+
+        AuthPrincipal currentUser = SecurityUtils.getCurrentAuthPrincipal();
+        String userRole = currentUser.getRole();
 
-        String filename = String.format("hospedagens_%s_a_%s.pdf",
-                dto.getDataInicio(), dto.getDataFim());
-        String cd = "attachment; filename*=UTF-8''" +
-                URLEncoder.encode(filename, StandardCharsets.UTF_8);
+        log.info("Tentativa de exportar RELATÓRIO DE HOSPEDAGENS (CSV) por usuário: {}, Role: {}",
+                currentUser.getUsername(), userRole);
+
+        if (!"ROLE_ADMIN".equals(userRole) && !"ROLE_DEV".equals(userRole)) {
+            throw new AccessDeniedException("Acesso negado para geração de relatórios");
+        }
+
+        StreamingResponseBody body = csv.hospedagens(f);
+
+        String fn = String.format("hospedagens_%s_a_%s.csv", f.getDataInicio(), f.getDataFim());
+        String cd = "attachment; filename*=UTF-8''" + URLEncoder.encode(fn, StandardCharsets.UTF_8);
 
         return ResponseEntity.ok()
                 .header(HttpHeaders.CONTENT_DISPOSITION, cd)
-                .contentType(MediaType.APPLICATION_PDF)
-                .body(bytes);
+                .contentType(RelatorioCsvService.TEXT_CSV)
+                .body(body);
     }
 }
@@ -0,0 +1,92 @@
+package br.com.pousda.pousada.reporting.api;
+
+import br.com.pousda.pousada.reporting.application.RelatorioJobService;
+import br.com.pousda.pousada.reporting.domain.contracts.jobs.RelatorioJobDTO;
+import br.com.pousda.pousada.reporting.domain.contracts.jobs.RelatorioTipo;
+import br.com.pousda.pousada.security.AuthPrincipal;
+import br.com.pousda.pousada.security.SecurityUtils;
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * Exportação assíncrona: POST /{tipo} cria o job (202), GET /{id} consulta o status,
+ * GET /{id}/arquivo baixa o PDF quando CONCLUIDO. Os /export síncronos continuam valendo.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/admin/reports/jobs")
+@RequiredArgsConstructor
+public class RelatorioJobController {
+
+    private final RelatorioJobService jobs;
+
+    @PostMapping("/{tipo}")
+    @PreAuthorize("hasAnyRole('ADMIN','DEV')")
+    public ResponseEntity<RelatorioJobDTO> criar(@PathVariable String tipo, @RequestBody JsonNode filtro) {
+        AuthPrincipal currentUser = usuarioAutorizado();
+        String geradoPor = currentUser.getUsername() + " | " + currentUser.getId();
+
+        RelatorioJobDTO dto = jobs.criar(RelatorioTipo.from(tipo), filtro, currentUser.getId(), geradoPor);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(dto);
+    }
+
+    @GetMapping("/{id}")
+    @PreAuthorize("hasAnyRole('ADMIN','DEV')")
+    public ResponseEntity<RelatorioJobDTO> status(@PathVariable String id) {
+        AuthPrincipal currentUser = usuarioAutorizado();
+        return jobs.status(id, currentUser.getId())
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/{id}/arquivo")
+    @PreAuthorize("hasAnyRole('ADMIN','DEV')")
+    public ResponseEntity<?> arquivo(@PathVariable String id) {
+        AuthPrincipal currentUser = usuarioAutorizado();
+
+        var pronto = jobs.arquivo(id, currentUser.getId()).orElse(null);
+        if (pronto == null) {
+            boolean existe = jobs.status(id, currentUser.getId()).isPresent();
+            return existe
+                    ? ResponseEntity.status(HttpStatus.CONFLICT)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(Map.of("error", "Relatório ainda não está pronto."))
+                    : ResponseEntity.notFound().build();
+        }
+
+        String cd = "attachment; filename*=UTF-8''" +
+                URLEncoder.encode(pronto.getNome(), StandardCharsets.UTF_8);
+
+        Resource body = new FileSystemResource(pronto.getCaminho());
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, cd)
+                .contentType(MediaType.APPLICATION_PDF)
+                .contentLength(pronto.getTamanho())
+                .body(body);
+    }
+
+    private AuthPrincipal usuarioAutorizado() {
+        AuthPrincipal currentUser = SecurityUtils.getCurrentAuthPrincipal();
+        String userRole = currentUser.getRole();
+
+        if (!"ROLE_ADMIN".equals(userRole) && !"ROLE_DEV".equals(userRole)) {
+            log.warn("Acesso negado para jobs de relatório. Role do usuário: {}", userRole);
+            throw new AccessDeniedException("Acesso negado para geração de relatórios");
+        }
+        return currentUser;
+    }
+}
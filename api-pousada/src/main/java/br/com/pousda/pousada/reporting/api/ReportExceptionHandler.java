@@ -0,0 +1,32 @@
+package br.com.pousda.pousada.reporting.api;
+
+import br.com.pousda.pousada.reporting.application.RelatorioGrandeDemaisException;
+import br.com.pousda.pousada.reporting.application.RelatorioOcupadoException;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.util.Map;
+
+// antes dos handlers genéricos (Exception/RuntimeException -> 500)
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RestControllerAdvice(basePackages = "br.com.pousda.pousada.reporting.api")
+public class ReportExceptionHandler {
+
+    @ExceptionHandler(RelatorioOcupadoException.class)
+    public ResponseEntity<Map<String, String>> ocupado(RelatorioOcupadoException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "5")
+                .body(Map.of("error", ex.getMessage()));
+    }
+
+    @ExceptionHandler(RelatorioGrandeDemaisException.class)
+    public ResponseEntity<Map<String, String>> grandeDemais(RelatorioGrandeDemaisException ex) {
+        return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY)
+                .body(Map.of("error", ex.getMessage()));
+    }
+}
@@ -0,0 +1,87 @@
+package br.com.pousda.pousada.reporting.application;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * CSV no formato que o Excel em pt-BR abre direto: UTF-8 com BOM, separador ';',
+ * decimal com vírgula e datas dd/MM/yyyy. Escreve linha a linha num buffer fixo.
+ * Texto que começa com = + - @ (ou tab/CR) ganha um ' na frente para o Excel não executar como fórmula.
+ */
+final class CsvEscritor implements Flushable {
+
+    private static final char SEP = ';';
+    private static final DateTimeFormatter DATA = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+    private static final DateTimeFormatter DATA_HORA = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+
+    private final Writer w;
+
+    CsvEscritor(OutputStream out) {
+        this.w = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        escrever("\uFEFF"); // BOM: sem ele o Excel lê como ANSI
+    }
+
+    void linha(Object... campos) {
+        StringBuilder sb = new StringBuilder(128);
+        for (int i = 0; i < campos.length; i++) {
+            if (i > 0) sb.append(SEP);
+            sb.append(campo(campos[i]));
+        }
+        sb.append("\r\n");
+        escrever(sb.toString());
+    }
+
+    @Override
+    public void flush() {
+        try {
+            w.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void escrever(String s) {
+        try {
+            w.write(s);
+        } catch (IOException e) {
+            // cliente fechou a conexão: interrompe a leitura do cursor
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String campo(Object v) {
+        if (v == null) return "";
+        if (v instanceof Timestamp) v = ((Timestamp) v).toLocalDateTime();
+        if (v instanceof java.sql.Date) v = ((java.sql.Date) v).toLocalDate();
+
+        String s;
+        if (v instanceof LocalDateTime) s = ((LocalDateTime) v).format(DATA_HORA);
+        else if (v instanceof LocalDate) s = ((LocalDate) v).format(DATA);
+        else if (v instanceof BigDecimal) s = decimal((BigDecimal) v);
+        else if (v instanceof Double || v instanceof Float) s = decimal(BigDecimal.valueOf(((Number) v).doubleValue()));
+        else if (v instanceof Number) s = v.toString();
+        else s = semFormula(v.toString());
+
+        if (s.indexOf(SEP) >= 0 || s.indexOf('"') >= 0 || s.indexOf('\n') >= 0 || s.indexOf('\r') >= 0) {
+            return '"' + s.replace("\"", "\"\"") + '"';
+        }
+        return s;
+    }
+
+    private static String semFormula(String s) {
+        if (s.isEmpty()) return s;
+        char c = s.charAt(0);
+        if (c == '=' || c == '+' || c == '-' || c == '@' || c == '\t' || c == '\r') return "'" + s;
+        return s;
+    }
+
+    private static String decimal(BigDecimal v) {
+        return v.setScale(2, RoundingMode.HALF_UP).toPlainString().replace('.', ',');
+    }
+}
@@ -31,13 +31,7 @@ public class FinanceiroReportService {
         var ini = f.getDataInicio().atStartOfDay(BAHIA).toLocalDateTime();
         var fim = f.getDataFim().plusDays(1).atStartOfDay(BAHIA).toLocalDateTime();
 
-        // ====== trata tipo: "TODAS" -> null (sem filtro), "ENTRADA"/"SAIDA" -> mantém ======
-        String filtroTipo = f.getTipo(); // vem do front: "TODAS", "ENTRADA", "SAIDA" ou null
-        String tipo = (filtroTipo == null ||
-                filtroTipo.trim().isEmpty() ||
-                "TODAS".equalsIgnoreCase(filtroTipo))
-                ? null          // null = não filtra por tipo
-                : filtroTipo;   // "ENTRADA" ou "SAIDA"
+        String tipo = tipoFiltro(f.getTipo());
 
         // ---------------- LINHAS DETALHADAS ----------------
         List<Object[]> rows = repo.findLinhas(ini, fim, tipo);
@@ -85,6 +79,15 @@ public class FinanceiroReportService {
         return dto;
     }
 
+    // ====== trata tipo: "TODAS" -> null (sem filtro), "ENTRADA"/"SAIDA" -> mantém ======
+    static String tipoFiltro(String filtroTipo) { // vem do front: "TODAS", "ENTRADA", "SAIDA" ou null
+        return (filtroTipo == null ||
+                filtroTipo.trim().isEmpty() ||
+                "TODAS".equalsIgnoreCase(filtroTipo))
+                ? null          // null = não filtra por tipo
+                : filtroTipo;   // "ENTRADA" ou "SAIDA"
+    }
+
     // --------- helper para lidar com Double / BigDecimal / Number ----------
     private BigDecimal toBigDecimal(Object v) {
         if (v == null) return BigDecimal.ZERO;
@@ -2,10 +2,7 @@ package br.com.pousda.pousada.reporting.application;
 
 import br.com.pousda.pousada.reporting.application.validation.ReportValidator;
 import br.com.pousda.pousada.reporting.domain.contracts.geral.GeralReportDTO;
-import br.com.pousda.pousada.reporting.infrastructure.readrepo.financeiro.FinancialMovementReadDao;
-import br.com.pousda.pousada.reporting.infrastructure.readrepo.hospedagens.HospedagensReadDao;
-import br.com.pousda.pousada.reporting.infrastructure.readrepo.quartos.QuartosReadDao;
-import br.com.pousda.pousada.reporting.infrastructure.readrepo.reservas.ReservasReadDao;
+import br.com.pousda.pousada.reporting.infrastructure.readrepo.geral.GeralReadDao;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
@@ -21,10 +18,9 @@ import static br.com.pousda.pousada.reporting.application.Timezones.BAHIA;
 @RequiredArgsConstructor
 public class GeralReportService {
 
-    private final FinancialMovementReadDao finRepo;
-    private final HospedagensReadDao hospRepo;
-    private final QuartosReadDao quartosRepo;
-    private final ReservasReadDao reservasRepo;
+    private static final int ULTIMAS_MOVIMENTACOES = 10;
+
+    private final GeralReadDao geralRepo;
 
     public GeralReportDTO gerar(LocalDate ini, LocalDate fim, String geradoPor) {
 
@@ -36,42 +32,23 @@ public class GeralReportService {
         LocalDateTime iniDT = ini.atStartOfDay(BAHIA).toLocalDateTime();
         LocalDateTime fimDT = fim.plusDays(1).atStartOfDay(BAHIA).toLocalDateTime();
 
-        // === FINANCEIRO: TOTAIS ===
-        List<Object[]> totalsList = finRepo.sumTotais(iniDT, fimDT, null);
-
-        BigDecimal entradas = BigDecimal.ZERO;
-        BigDecimal saidas   = BigDecimal.ZERO;
-
-        if (!totalsList.isEmpty() && totalsList.get(0) != null) {
-            Object[] row = totalsList.get(0);
-            entradas = toBigDecimal(row[0]);
-            saidas   = toBigDecimal(row[1]);
-        }
+        // === KPIs: uma consulta (financeiro, reservas, hospedagens e quartos) ===
+        Object[] k = geralRepo.kpis(iniDT, fimDT, ini, fim);
 
+        BigDecimal entradas = toBigDecimal(k[0]);
+        BigDecimal saidas   = toBigDecimal(k[1]);
         BigDecimal saldo = entradas.subtract(saidas);
 
-        // === OUTROS KPIs ===
-        long reservasPendentes = reservasRepo.countPendentes(ini, fim);
-
-        // ✅ HOSPEDAGENS ATIVAS (status atual)
-        long hospedagensAtivas = hospRepo.countAtivas();
+        long reservasPendentes  = toLong(k[2]);
+        long hospedagensAtivas  = toLong(k[3]); // status atual
+        long quartosDisponiveis = toLong(k[4]); // status atual
+        long quartosOcupados    = toLong(k[5]);
+        long quartosManutencao  = toLong(k[6]);
 
-        // ✅ QUARTOS POR STATUS (status atual)
-        // ⚠️ Ajuste os textos conforme seu banco/enum
-        long quartosDisponiveis = quartosRepo.countByStatus("DISPONIVEL");
-        long quartosOcupados    = quartosRepo.countByStatus("OCUPADO");
-        long quartosManutencao  = quartosRepo.countByStatus("MANUTENCAO");
+        // === MINI-LISTA ÚLTIMAS MOVIMENTAÇÕES: LIMIT no banco ===
+        List<Map<String, Object>> ultimas = new ArrayList<>(ULTIMAS_MOVIMENTACOES);
 
-        // (se quiser usar ocupação média depois, você já tem)
-        // Double ocupacao = quartosRepo.ocupacaoMedia(ini, fim);
-
-        // === MINI-LISTA ÚLTIMAS MOVIMENTAÇÕES (10) ===
-        List<Map<String, Object>> ultimas = new ArrayList<>();
-        List<Object[]> rows = finRepo.findLinhas(iniDT, fimDT, null);
-        int limit = Math.min(10, rows.size());
-
-        for (int i = 0; i < limit; i++) {
-            Object[] r = rows.get(i);
+        for (Object[] r : geralRepo.ultimasMovimentacoes(iniDT, fimDT, ULTIMAS_MOVIMENTACOES)) {
             Map<String, Object> item = new HashMap<>();
 
             Timestamp ts = (Timestamp) r[1];
@@ -109,6 +86,10 @@ public class GeralReportService {
         return out;
     }
 
+    private long toLong(Object v) {
+        return v == null ? 0L : ((Number) v).longValue();
+    }
+
     private BigDecimal toBigDecimal(Object v) {
         if (v == null) return BigDecimal.ZERO;
         if (v instanceof BigDecimal) return (BigDecimal) v;
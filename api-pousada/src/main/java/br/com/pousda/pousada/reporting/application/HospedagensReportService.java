@@ -8,6 +8,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -23,13 +24,12 @@ public class HospedagensReportService {
     public HospedagensReportDTO gerar(HospedagensFilter f, String geradoPor) {
         ReportValidator.validar(f);
 
-        var rows = repo.listar(f.getDataInicio(), f.getDataFim());
-        List<HospedagemLinhaDTO> linhas = new ArrayList<>();
+        String status = statusFiltro(f.getStatus());
+        String tipo = tipoFiltro(f.getTipo());
 
-        long ativas = 0, inativas = 0;
-        int diariasVendidas = 0;
-        BigDecimal somaValorFinalizadas = BigDecimal.ZERO;
-        long countFinalizadas = 0;
+        // filtros aplicados no SQL: só chegam as linhas que vão para o relatório
+        var rows = repo.listar(f.getDataInicio(), f.getDataFim(), status, tipo);
+        List<HospedagemLinhaDTO> linhas = new ArrayList<>(rows.size());
 
         for (var r: rows) {
             var linha = new HospedagemLinhaDTO();
@@ -43,37 +43,19 @@ public class HospedagensReportService {
             linha.setFormaPagamento((String) r[7]);
             linha.setObservacao((String) r[8]);
             linha.setValor((BigDecimal) r[9]);
-            String status = (String) r[10];
-            String tipo   = (String) r[11];
-
-            // filtros
-            if (!"TODAS".equalsIgnoreCase(f.getStatus())) {
-                boolean ativa = "ATIVA".equalsIgnoreCase(status) || "CHECKIN".equalsIgnoreCase(status);
-                boolean inativa = "FINALIZADA".equalsIgnoreCase(status) || "CANCELADA".equalsIgnoreCase(status);
-                if ("ATIVAS".equalsIgnoreCase(f.getStatus()) && !ativa) continue;
-                if ("INATIVAS".equalsIgnoreCase(f.getStatus()) && !inativa) continue;
-            }
-            if (!"TODOS".equalsIgnoreCase(f.getTipo()) && !f.getTipo().equalsIgnoreCase(tipo)) continue;
-
-            // métricas
-            if ("ATIVA".equalsIgnoreCase(status) || "CHECKIN".equalsIgnoreCase(status)) ativas++;
-            if ("FINALIZADA".equalsIgnoreCase(status) || "CANCELADA".equalsIgnoreCase(status)) inativas++;
-            if (linha.getDiarias() != null) diariasVendidas += linha.getDiarias();
-            if ("FINALIZADA".equalsIgnoreCase(status) && linha.getValor() != null) {
-                somaValorFinalizadas = somaValorFinalizadas.add(linha.getValor());
-                countFinalizadas++;
-            }
-
             linhas.add(linha);
         }
 
+        // métricas: uma agregação no banco sobre o mesmo recorte
+        Object[] agg = repo.resumo(f.getDataInicio(), f.getDataFim(), status, tipo);
+
         var resumo = new HospedagensResumoDTO();
-        resumo.setTotalAtivas(ativas);
-        resumo.setTotalInativas(inativas);
-        resumo.setTotal(linhas.size());
-        resumo.setDiariasVendidas(diariasVendidas);
-        resumo.setTicketMedio(countFinalizadas == 0 ? BigDecimal.ZERO :
-                somaValorFinalizadas.divide(BigDecimal.valueOf(countFinalizadas), 2, java.math.RoundingMode.HALF_UP));
+        resumo.setTotal(numero(agg[0]).longValue());
+        resumo.setTotalAtivas(numero(agg[1]).longValue());
+        resumo.setTotalInativas(numero(agg[2]).longValue());
+        resumo.setDiariasVendidas(numero(agg[3]).intValue());
+        resumo.setTicketMedio(agg[4] == null ? BigDecimal.ZERO
+                : new BigDecimal(agg[4].toString()).setScale(2, RoundingMode.HALF_UP));
 
         var dto = new HospedagensReportDTO();
         dto.setDataInicio(f.getDataInicio());
@@ -84,4 +66,21 @@ public class HospedagensReportService {
         dto.setLinhas(linhas);
         return dto;
     }
+
+    /** ATIVAS | INATIVAS; qualquer outro valor (inclusive null) = TODAS, como antes. */
+    static String statusFiltro(String status) {
+        if ("ATIVAS".equalsIgnoreCase(status)) return "ATIVAS";
+        if ("INATIVAS".equalsIgnoreCase(status)) return "INATIVAS";
+        return "TODAS";
+    }
+
+    static String tipoFiltro(String tipo) {
+        return (tipo == null || tipo.isBlank() || "TODOS".equalsIgnoreCase(tipo))
+                ? "TODOS"
+                : tipo.trim().toUpperCase();
+    }
+
+    private static Number numero(Object v) {
+        return v == null ? 0 : (Number) v;
+    }
 }
@@ -0,0 +1,121 @@
+package br.com.pousda.pousada.reporting.application;
+
+import com.openhtmltopdf.extend.FSCacheEx;
+import com.openhtmltopdf.extend.FSCacheValue;
+import com.openhtmltopdf.extend.FSStream;
+import com.openhtmltopdf.extend.FSStreamFactory;
+import com.openhtmltopdf.extend.impl.FSDefaultCacheStore;
+import com.openhtmltopdf.pdfboxout.PdfRendererBuilder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Component;
+
+import java.io.*;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Recursos compartilhados por todas as renderizações de PDF, carregados uma vez na subida:
+ *
+ * - baseUri de /static/ (antes resolvido a cada relatório);
+ * - imagens de /static/images (ex.: logo-pousada.png) em memória: o renderer recebe os bytes
+ *   sem abrir o jar a cada PDF;
+ * - cache de métricas de fontes do openhtmltopdf, reaproveitado entre renderizações.
+ *
+ * Tudo aqui é imutável ou thread-safe; o builder continua sendo um por renderização
+ * (PdfRendererBuilder não é reutilizável).
+ */
+@Slf4j
+@Component
+public class PdfRecursos {
+
+    private final String baseUri;
+    private final Map<String, byte[]> estaticos;
+    private final FSCacheEx<String, FSCacheValue> metricasFontes = new FSDefaultCacheStore();
+    private final FSStreamFactory streams = this::abrir;
+
+    public PdfRecursos() throws IOException {
+        // HTML deve referenciar assim: src="images/logo-pousada.png"
+        this.baseUri = new ClassPathResource("static/").getURL().toExternalForm();
+        this.estaticos = carregarEstaticos();
+        log.info("[RELATORIO] Recursos de PDF em cache: {}", estaticos.keySet());
+    }
+
+    /** Aplica base, streams em cache e cache de fontes ao builder de uma renderização. */
+    void configurar(PdfRendererBuilder builder) {
+        builder.useProtocolsStreamImplementation(streams, "jar", "file");
+        builder.useCacheStore(PdfRendererBuilder.CacheStore.PDF_FONT_METRICS, metricasFontes);
+    }
+
+    String baseUri() {
+        return baseUri;
+    }
+
+    /* ============================ INTERNOS ============================ */
+
+    private Map<String, byte[]> carregarEstaticos() throws IOException {
+        Map<String, byte[]> m = new HashMap<>();
+        Resource[] rs = new PathMatchingResourcePatternResolver().getResources("classpath:static/images/*");
+        for (Resource r : rs) {
+            if (!r.isReadable() || r.getFilename() == null) continue;
+            try (InputStream in = r.getInputStream()) {
+                m.put("images/" + r.getFilename(), in.readAllBytes());
+            }
+        }
+        return Collections.unmodifiableMap(m);
+    }
+
+    private FSStream abrir(String uri) {
+        byte[] bytes = uri.startsWith(baseUri) ? estaticos.get(uri.substring(baseUri.length())) : null;
+        if (bytes != null) return new Bytes(bytes);
+        return new Url(uri);
+    }
+
+    private static final class Bytes implements FSStream {
+        private final byte[] bytes;
+
+        Bytes(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        @Override
+        public InputStream getStream() {
+            return new ByteArrayInputStream(bytes);
+        }
+
+        @Override
+        public Reader getReader() {
+            return new InputStreamReader(getStream(), StandardCharsets.UTF_8);
+        }
+    }
+
+    /** Fora do cache: mesmo comportamento do renderer padrão (abre a URL). */
+    private static final class Url implements FSStream {
+        private final String uri;
+
+        Url(String uri) {
+            this.uri = uri;
+        }
+
+        @Override
+        public InputStream getStream() {
+            try {
+                return new URL(uri).openStream();
+            } catch (IOException e) {
+                log.warn("[RELATORIO] Recurso não encontrado para o PDF: {}", uri);
+                return null;
+            }
+        }
+
+        @Override
+        public Reader getReader() {
+            InputStream in = getStream();
+            return in == null ? null : new InputStreamReader(in, StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -1,45 +1,261 @@
 package br.com.pousda.pousada.reporting.application;
 
+import br.com.pousda.pousada.reporting.domain.contracts.jobs.RelatorioTipo;
 import com.openhtmltopdf.pdfboxout.PdfRendererBuilder;
-import lombok.RequiredArgsConstructor;
-import org.springframework.core.io.ClassPathResource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.thymeleaf.TemplateEngine;
 import org.thymeleaf.context.Context;
+import org.w3c.dom.Document;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
 
-import java.io.ByteArrayOutputStream;
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * HTML (Thymeleaf) -> PDF (openhtmltopdf).
+ *
+ * - O HTML é escrito em arquivo temporário à medida que o template processa as linhas
+ *   (nenhuma String com o documento inteiro); o PDF vai direto para um OutputStream
+ *   (nenhum byte[] com o arquivo inteiro). Em memória fica só o DOM/layout do renderer.
+ * - No máximo app.relatorios.pdf.max-renders renderizações simultâneas; quem passar de
+ *   app.relatorios.pdf.espera-ms na fila recebe RelatorioOcupadoException (503).
+ * - A vaga cobre só a renderização: para download o PDF é gerado num arquivo temporário e a
+ *   vaga é liberada antes de começar a escrever para o cliente (cliente lento não segura vaga).
+ * - Temporários (HTML e PDF) em RelatorioTemporarios, que limpa o que uma resposta não apagou.
+ * - Base, imagens e métricas de fontes vêm de PdfRecursos (carregados uma vez).
+ * - Na subida (app.relatorios.pdf.aquecer) os templates são parseados para o cache do Thymeleaf
+ *   e um PDF mínimo com o logo é gerado, para o primeiro relatório real não pagar a carga.
+ * - Tempo de cada renderização (HTML + PDF) em relatorios.pdf.render{template}, com histograma.
+ */
+@Slf4j
 @Service
-@RequiredArgsConstructor
 public class PdfRendererService {
 
+    // mesmos recursos dos relatórios: logo, fonte regular/negrito/itálico, tabela
+    private static final String HTML_AQUECIMENTO =
+            "<html><head><style>@page { size: A4; margin: 12mm; } " +
+                    "body { font-family: Arial, sans-serif; font-size: 10px; } " +
+                    "table { width: 100%; border-collapse: collapse; } td { border: 1px solid #ccc; }</style></head>" +
+                    "<body><img src=\"images/logo-pousada.png\" alt=\"\"/>" +
+                    "<p><b>Pousada</b> <i>Relatórios</i></p>" +
+                    "<table><tr><td>01/01/2025</td><td>R$ 0,00</td></tr></table>" +
+                    "</body></html>";
+
     private final TemplateEngine templateEngine;
+    private final PdfRecursos recursos;
+    private final RelatorioTemporarios temporarios;
+    private final MeterRegistry metrics;
+    private final Semaphore renders;
+    private final long esperaMs;
+    private final boolean aquecer;
+    private final Map<String, Timer> tempos = new ConcurrentHashMap<>();
+
+    public PdfRendererService(TemplateEngine templateEngine,
+                              PdfRecursos recursos,
+                              RelatorioTemporarios temporarios,
+                              MeterRegistry metrics,
+                              @Value("${app.relatorios.pdf.max-renders:2}") int maxRenders,
+                              @Value("${app.relatorios.pdf.espera-ms:20000}") long esperaMs,
+                              @Value("${app.relatorios.pdf.aquecer:true}") boolean aquecer) {
+        this.templateEngine = templateEngine;
+        this.recursos = recursos;
+        this.temporarios = temporarios;
+        this.metrics = metrics;
+        int max = Math.max(1, maxRenders);
+        this.renders = new Semaphore(max, true);
+        this.esperaMs = esperaMs;
+        this.aquecer = aquecer;
+
+        Gauge.builder("relatorios.pdf.renders.ativos", renders, r -> max - r.availablePermits())
+                .register(metrics);
+    }
+
+    /* ============================ AQUECIMENTO ============================ */
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void aquecer() {
+        if (!aquecer) return;
+        long inicio = System.currentTimeMillis();
 
+        for (RelatorioTipo t : RelatorioTipo.values()) {
+            try {
+                // só interessa o parse (fica no cache do Thymeleaf); sem modelo o processamento falha depois
+                templateEngine.process(t.getTemplate(), new Context(), Writer.nullWriter());
+            } catch (RuntimeException e) {
+                log.debug("[RELATORIO] Aquecimento de {}: {}", t.getTemplate(), e.getMessage());
+            }
+        }
+
+        try (Reader r = new StringReader(HTML_AQUECIMENTO)) {
+            gerarPdf(xhtml(r), OutputStream.nullOutputStream());
+            log.info("[RELATORIO] Renderizador de PDF aquecido em {} ms", System.currentTimeMillis() - inicio);
+        } catch (Exception e) {
+            log.warn("[RELATORIO] Falha ao aquecer renderizador de PDF: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Para o controller: gera o PDF inteiro em arquivo temporário ainda na thread da requisição
+     * (erro de template/dados vira resposta de erro normal) e já devolve a vaga; a resposta só
+     * copia o arquivo para o cliente e o apaga.
+     */
+    public StreamingResponseBody stream(String template, Map<String, Object> model) {
+        Path pdf = renderArquivo(template, model);
+        return out -> {
+            try {
+                Files.copy(pdf, out);
+            } finally {
+                temporarios.apagar(pdf);
+            }
+        };
+    }
+
+    /** Renderiza direto em out (arquivo, resposta...), disputando as vagas de max-renders. */
+    public void render(String template, Map<String, Object> model, OutputStream out) {
+        adquirir();
+        try {
+            renderizar(template, model, out);
+        } finally {
+            renders.release();
+        }
+    }
+
+    /**
+     * Para os jobs de RelatorioJobService: não usa as vagas de max-renders (quem limita é o pool
+     * de workers dos jobs), assim job não espera nem falha por causa de download em andamento.
+     */
+    public void renderEmSegundoPlano(String template, Map<String, Object> model, OutputStream out) {
+        renderizar(template, model, out);
+    }
+
+    /** Mantido para documentos pequenos; relatórios usam stream/render(…, OutputStream). */
     public byte[] render(String template, Map<String, Object> model) {
-        Context ctx = new Context();
-        ctx.setVariables(model);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        render(template, model, out);
+        return out.toByteArray();
+    }
 
-        String html = templateEngine.process(template, ctx);
+    /* ============================ INTERNOS ============================ */
 
-        try (ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+    private void renderizar(String template, Map<String, Object> model, OutputStream out) {
+        Timer.Sample tempo = Timer.start(metrics);
+        Path html = null;
+        try {
+            html = escreverHtml(template, model);
+            gerarPdf(html, out);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao gerar PDF: " + e.getMessage(), e);
+        } finally {
+            temporarios.apagar(html);
+            tempo.stop(tempo(template));
+        }
+    }
 
-            // ✅ Base URI: aponta para /static/
-            // HTML deve referenciar assim: src="images/logo-pousada.png"
-            String baseUri = new ClassPathResource("static/")
-                    .getURL()
-                    .toExternalForm();
+    private Path renderArquivo(String template, Map<String, Object> model) {
+        Path pdf = temporarios.criar(".pdf");
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(pdf), 64 * 1024)) {
+            render(template, model, out);
+        } catch (IOException e) {
+            temporarios.apagar(pdf);
+            throw new UncheckedIOException("Falha ao gerar PDF: " + e.getMessage(), e);
+        } catch (RuntimeException e) {
+            temporarios.apagar(pdf);
+            throw e;
+        }
+        return pdf;
+    }
 
-            PdfRendererBuilder builder = new PdfRendererBuilder();
-            builder.useFastMode();
-            builder.withHtmlContent(html, baseUri);
-            builder.toStream(out);
-            builder.run();
+    private void adquirir() {
+        boolean ok;
+        try {
+            ok = renders.tryAcquire(esperaMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            ok = false;
+        }
+        if (!ok) {
+            log.warn("[RELATORIO] Limite de renderizações simultâneas atingido");
+            throw new RelatorioOcupadoException("Muitos relatórios sendo gerados agora. Tente novamente em instantes.");
+        }
+    }
 
-            return out.toByteArray();
+    private Path escreverHtml(String template, Map<String, Object> model) {
+        Context ctx = new Context();
+        ctx.setVariables(model);
 
-        } catch (Exception e) {
-            throw new RuntimeException("Falha ao gerar PDF: " + e.getMessage(), e);
+        Path html = temporarios.criar(".html");
+        try {
+            try (Writer w = new BufferedWriter(
+                    new OutputStreamWriter(Files.newOutputStream(html), StandardCharsets.UTF_8), 64 * 1024)) {
+                templateEngine.process(template, ctx, w);
+            }
+            return html;
+        } catch (IOException e) {
+            temporarios.apagar(html);
+            throw new UncheckedIOException("Falha ao gerar HTML do relatório: " + e.getMessage(), e);
+        } catch (RuntimeException e) {
+            temporarios.apagar(html);
+            throw e;
         }
     }
+
+    private void gerarPdf(Path html, OutputStream out) throws IOException {
+        Document doc;
+        try (Reader r = Files.newBufferedReader(html, StandardCharsets.UTF_8)) {
+            doc = xhtml(r);
+        }
+        gerarPdf(doc, out);
+    }
+
+    /**
+     * Parse do XHTML gerado pelo Thymeleaf com o parser do JDK. XMLResource.load do openhtmltopdf
+     * só funciona dentro de builder.run() (exige o contexto do renderer na thread).
+     */
+    private static Document xhtml(Reader r) throws IOException {
+        try {
+            DocumentBuilderFactory f = DocumentBuilderFactory.newInstance();
+            f.setNamespaceAware(true);
+            f.setExpandEntityReferences(false);
+            f.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+            f.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
+            return f.newDocumentBuilder().parse(new InputSource(r));
+        } catch (ParserConfigurationException | SAXException e) {
+            throw new IOException("HTML do relatório inválido: " + e.getMessage(), e);
+        }
+    }
+
+    private void gerarPdf(Document doc, OutputStream out) throws IOException {
+        // ✅ Base URI: aponta para /static/ (resolvida uma vez em PdfRecursos)
+        PdfRendererBuilder builder = new PdfRendererBuilder();
+        builder.useFastMode();
+        recursos.configurar(builder);
+        builder.withW3cDocument(doc, recursos.baseUri());
+        builder.toStream(out);
+        builder.run();
+    }
+
+    private Timer tempo(String template) {
+        return tempos.computeIfAbsent(template, t -> Timer.builder("relatorios.pdf.render")
+                .tag("template", t)
+                .publishPercentileHistogram()
+                .register(metrics));
+    }
 }
@@ -0,0 +1,276 @@
+package br.com.pousda.pousada.reporting.application;
+
+import br.com.pousda.pousada.reporting.application.validation.ReportValidator;
+import br.com.pousda.pousada.reporting.domain.contracts.common.PeriodoFilter;
+import br.com.pousda.pousada.reporting.domain.contracts.financeiro.FinanceiroFilter;
+import br.com.pousda.pousada.reporting.domain.contracts.geral.GeralReportDTO;
+import br.com.pousda.pousada.reporting.domain.contracts.hospedagens.HospedagensFilter;
+import br.com.pousda.pousada.reporting.domain.contracts.quartos.QuartoLinhaDTO;
+import br.com.pousda.pousada.reporting.domain.contracts.quartos.QuartosFilter;
+import br.com.pousda.pousada.reporting.domain.contracts.reservas.ReservasFilter;
+import br.com.pousda.pousada.reporting.infrastructure.readrepo.financeiro.FinancialMovementReadDao;
+import br.com.pousda.pousada.reporting.infrastructure.readrepo.hospedagens.HospedagensReadDao;
+import br.com.pousda.pousada.reporting.infrastructure.readrepo.reservas.ReservasReadDao;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionTimedOutException;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static br.com.pousda.pousada.reporting.application.Timezones.BAHIA;
+
+/**
+ * Exportação tabular (CSV) dos relatórios, alternativa ao PDF para quem vai trabalhar os dados.
+ *
+ * - Financeiro, hospedagens e reservas: as linhas saem do cursor do banco (fetch size) para um
+ *   arquivo temporário, dentro de uma transação somente leitura com timeout
+ *   (app.relatorios.csv.timeout-s), ainda na thread da requisição. Só depois do commit o arquivo
+ *   é copiado para a resposta, então cliente lento não segura conexão do pool. Memória constante,
+ *   independente do período.
+ * - Acima de app.relatorios.csv.max-linhas, ou se a leitura estourar o timeout, nada é enviado:
+ *   RelatorioGrandeDemaisException (422) pedindo para refinar o período. Nunca sai arquivo cortado.
+ * - No máximo app.relatorios.csv.max-exportacoes leituras simultâneas; quem passar de
+ *   app.relatorios.csv.espera-ms na fila recebe RelatorioOcupadoException (503).
+ * - Quartos e geral são pequenos (um registro por quarto / só indicadores): reaproveitam o service do PDF.
+ * - Validação do filtro acontece antes de devolver o corpo, então erro de período vira 400 normal.
+ */
+@Slf4j
+@Service
+public class RelatorioCsvService {
+
+    public static final MediaType TEXT_CSV = new MediaType("text", "csv", java.nio.charset.StandardCharsets.UTF_8);
+
+    private final FinancialMovementReadDao financeiro;
+    private final HospedagensReadDao hospedagens;
+    private final ReservasReadDao reservas;
+    private final QuartosReportService quartos;
+    private final GeralReportService geral;
+    private final RelatorioTemporarios temporarios;
+    private final TransactionTemplate leitura;
+    private final Semaphore exportacoes;
+    private final long esperaMs;
+    private final long maxLinhas;
+
+    public RelatorioCsvService(FinancialMovementReadDao financeiro,
+                               HospedagensReadDao hospedagens,
+                               ReservasReadDao reservas,
+                               QuartosReportService quartos,
+                               GeralReportService geral,
+                               RelatorioTemporarios temporarios,
+                               PlatformTransactionManager txManager,
+                               MeterRegistry metrics,
+                               @Value("${app.relatorios.csv.max-linhas:200000}") long maxLinhas,
+                               @Value("${app.relatorios.csv.timeout-s:15}") int timeoutSegundos,
+                               @Value("${app.relatorios.csv.max-exportacoes:2}") int maxExportacoes,
+                               @Value("${app.relatorios.csv.espera-ms:5000}") long esperaMs) {
+        this.financeiro = financeiro;
+        this.hospedagens = hospedagens;
+        this.reservas = reservas;
+        this.quartos = quartos;
+        this.geral = geral;
+        this.temporarios = temporarios;
+        this.leitura = new TransactionTemplate(txManager);
+        this.leitura.setReadOnly(true);
+        this.leitura.setTimeout(timeoutSegundos);
+        this.maxLinhas = maxLinhas;
+        int max = Math.max(1, maxExportacoes);
+        this.exportacoes = new Semaphore(max, true);
+        this.esperaMs = esperaMs;
+
+        Gauge.builder("relatorios.csv.exportacoes.ativas", exportacoes, e -> max - e.availablePermits())
+                .register(metrics);
+    }
+
+    /* ============================ RELATÓRIOS ============================ */
+
+    public StreamingResponseBody financeiro(FinanceiroFilter f) {
+        ReportValidator.validar(f);
+        LocalDateTime ini = f.getDataInicio().atStartOfDay(BAHIA).toLocalDateTime();
+        LocalDateTime fim = f.getDataFim().plusDays(1).atStartOfDay(BAHIA).toLocalDateTime();
+        String tipo = FinanceiroReportService.tipoFiltro(f.getTipo());
+
+        return cursor("financeiro",
+                csv -> csv.linha("Data", "Código", "Descrição", "Tipo", "Valor", "Autor"),
+                () -> financeiro.streamLinhas(ini, fim, tipo),
+                (csv, r) -> csv.linha(r[1], r[6], r[2], r[4], r[3], r[5]));
+    }
+
+    public StreamingResponseBody hospedagens(HospedagensFilter f) {
+        ReportValidator.validar(f);
+        String status = HospedagensReportService.statusFiltro(f.getStatus());
+        String tipo = HospedagensReportService.tipoFiltro(f.getTipo());
+
+        return cursor("hospedagens",
+                csv -> csv.linha("Código", "Hóspede", "Quarto", "Entrada", "Saída", "Diárias",
+                        "Valor", "Forma de pagamento", "Status", "Tipo", "Criado por", "Observação"),
+                () -> hospedagens.stream(f.getDataInicio(), f.getDataFim(), status, tipo),
+                (csv, r) -> csv.linha(r[0], r[1], r[2], r[3], r[4], r[5], r[9], r[7], r[10], r[11], r[6], r[8]));
+    }
+
+    public StreamingResponseBody reservas(ReservasFilter f) {
+        ReportValidator.validar(f);
+        String status = f.getStatus() == null || f.getStatus().isBlank()
+                ? "TODAS" : f.getStatus().trim().toUpperCase();
+
+        return cursor("reservas",
+                csv -> csv.linha("Código", "Hóspede", "Quarto", "Criada em", "Check-in previsto", "Status"),
+                () -> reservas.streamLinhas(f.getDataInicio(), f.getDataFim(), status),
+                (csv, r) -> csv.linha(r[0], r[1], r[2], r[3], r[4], r[5]));
+    }
+
+    public StreamingResponseBody quartos(QuartosFilter f, String geradoPor) {
+        var dto = quartos.gerar(f, geradoPor);
+
+        return out -> {
+            CsvEscritor csv = new CsvEscritor(out);
+            csv.linha("Número", "Tipo", "Valor da diária", "Status");
+            for (QuartoLinhaDTO q : dto.getLinhas()) {
+                csv.linha(q.getNumero(), q.getTipo(), q.getValorDiaria(), q.getStatus());
+            }
+            csv.flush();
+        };
+    }
+
+    public StreamingResponseBody geral(PeriodoFilter f, String geradoPor) {
+        GeralReportDTO dto = geral.gerar(f.getDataInicio(), f.getDataFim(), geradoPor);
+
+        return out -> {
+            CsvEscritor csv = new CsvEscritor(out);
+            csv.linha("Indicador", "Valor");
+            csv.linha("Entradas", dto.getEntradas());
+            csv.linha("Saídas", dto.getSaidas());
+            csv.linha("Saldo", dto.getSaldo());
+            csv.linha("Reservas pendentes", dto.getReservasPendentes());
+            csv.linha("Hospedagens ativas", dto.getHospedagensAtivas());
+            csv.linha("Quartos disponíveis", dto.getQuartosDisponiveis());
+            csv.linha("Quartos ocupados", dto.getQuartosOcupados());
+            csv.linha("Quartos em manutenção", dto.getQuartosManutencao());
+
+            csv.linha();
+            csv.linha("Data", "Código", "Descrição", "Tipo", "Valor", "Autor");
+            for (Map<String, Object> m : dto.getUltimasMovimentacoes()) {
+                csv.linha(m.get("data"), m.get("codigo"), m.get("descricao"), m.get("tipo"), m.get("valor"), m.get("autor"));
+            }
+            csv.flush();
+        };
+    }
+
+    /* ============================ INTERNOS ============================ */
+
+    private interface Linha {
+        void escrever(CsvEscritor csv, Object[] row);
+    }
+
+    private interface Consulta {
+        Stream<Object[]> abrir();
+    }
+
+    /** Gera o CSV inteiro em arquivo temporário; a resposta só copia o arquivo para o cliente. */
+    private StreamingResponseBody cursor(String relatorio, Consumer<CsvEscritor> cabecalho,
+                                         Consulta consulta, Linha linha) {
+        Path arquivo = spool(relatorio, cabecalho, consulta, linha);
+        return out -> {
+            try {
+                Files.copy(arquivo, out);
+                out.flush();
+            } finally {
+                temporarios.apagar(arquivo);
+            }
+        };
+    }
+
+    private Path spool(String relatorio, Consumer<CsvEscritor> cabecalho, Consulta consulta, Linha linha) {
+        adquirir();
+        long inicio = System.currentTimeMillis();
+        long[] linhas = {0};
+
+        Path tmp = temporarios.criar(".csv");
+        try {
+            leitura.executeWithoutResult(s -> {
+                try (OutputStream arquivo = Files.newOutputStream(tmp)) {
+                    CsvEscritor csv = new CsvEscritor(arquivo);
+                    cabecalho.accept(csv);
+                    try (Stream<Object[]> rows = consulta.abrir()) {
+                        Iterator<Object[]> it = rows.iterator();
+                        while (it.hasNext()) {
+                            if (linhas[0] >= maxLinhas) {
+                                throw new RelatorioGrandeDemaisException("A exportação passa de " + maxLinhas
+                                        + " linhas. Refine o período.");
+                            }
+                            linha.escrever(csv, it.next());
+                            linhas[0]++;
+                        }
+                    }
+                    csv.flush();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (RuntimeException e) {
+            temporarios.apagar(tmp);
+            if (e instanceof RelatorioGrandeDemaisException) {
+                log.warn("[RELATORIO] CSV {} recusado: mais de {} linhas", relatorio, maxLinhas);
+                throw e;
+            }
+            if (tempoEsgotado(e)) {
+                log.warn("[RELATORIO] CSV {} recusado: leitura passou do timeout ({} linhas em {} ms)",
+                        relatorio, linhas[0], System.currentTimeMillis() - inicio);
+                throw new RelatorioGrandeDemaisException("A exportação demorou mais que o permitido. Refine o período.");
+            }
+            throw e;
+        } finally {
+            exportacoes.release();
+        }
+
+        log.info("[RELATORIO] CSV {} exportado: {} linhas em {} ms",
+                relatorio, linhas[0], System.currentTimeMillis() - inicio);
+        return tmp;
+    }
+
+    private void adquirir() {
+        boolean ok;
+        try {
+            ok = exportacoes.tryAcquire(esperaMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            ok = false;
+        }
+        if (!ok) {
+            log.warn("[RELATORIO] Limite de exportações CSV simultâneas atingido");
+            throw new RelatorioOcupadoException("Muitas exportações em andamento agora. Tente novamente em instantes.");
+        }
+    }
+
+    /** Timeout da transação/consulta, qualquer que seja a camada que o embrulhou (57014 = query cancelada no Postgres). */
+    private static boolean tempoEsgotado(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof TransactionTimedOutException
+                    || t instanceof QueryTimeoutException
+                    || t instanceof javax.persistence.QueryTimeoutException
+                    || (t instanceof SQLException && "57014".equals(((SQLException) t).getSQLState()))) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
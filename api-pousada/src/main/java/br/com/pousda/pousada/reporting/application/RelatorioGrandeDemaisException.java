@@ -0,0 +1,8 @@
+package br.com.pousda.pousada.reporting.application;
+
+/** Exportação passou do teto de linhas ou do tempo de leitura; o cliente deve refinar o período. */
+public class RelatorioGrandeDemaisException extends RuntimeException {
+    public RelatorioGrandeDemaisException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,321 @@
+package br.com.pousda.pousada.reporting.application;
+
+import br.com.pousda.pousada.dashboard.domain.DashboardDadosAlteradosEvent;
+import br.com.pousda.pousada.reporting.application.validation.ReportValidator;
+import br.com.pousda.pousada.reporting.domain.contracts.common.PeriodoFilter;
+import br.com.pousda.pousada.reporting.domain.contracts.jobs.RelatorioJobDTO;
+import br.com.pousda.pousada.reporting.domain.contracts.jobs.RelatorioTipo;
+import br.com.pousda.pousada.reporting.domain.contracts.jobs.StatusRelatorioJob;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.DigestUtils;
+
+import javax.annotation.PreDestroy;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static br.com.pousda.pousada.reporting.application.Timezones.BAHIA;
+
+/**
+ * Exportação de relatórios em segundo plano.
+ *
+ * - POST cria o job; um pool limitado gera o PDF em arquivo temporário; o cliente consulta o
+ *   status e baixa o arquivo quando CONCLUIDO. Fila cheia -> RelatorioOcupadoException (503).
+ * - Os workers são o limite de renderizações dos jobs (app.relatorios.jobs.workers); não
+ *   disputam as vagas dos downloads diretos (app.relatorios.pdf.max-renders).
+ * - Resultado reaproveitado por (tipo, hash do filtro + emissor, versão dos dados): pedir de novo
+ *   o mesmo relatório devolve o job existente (pronto ou em andamento) sem gerar outra vez.
+ *   O emissor entra no hash porque sai impresso no PDF ("gerado por").
+ * - Versão dos dados: sobe a cada DashboardDadosAlteradosEvent (lançamentos, hospedagens,
+ *   reservas, quartos), na hora e de novo ao fim da transação. Alteração feita em outro nó não
+ *   é vista aqui; o TTL limita quanto tempo um resultado desses pode ser servido.
+ * - Jobs e arquivos vivem só neste nó e somem após o TTL (ou no shutdown).
+ */
+@Slf4j
+@Service
+public class RelatorioJobService {
+
+    private final RelatorioModelos modelos;
+    private final PdfRendererService pdf;
+    private final ObjectMapper mapper;
+    private final ObjectMapper mapperHash;
+
+    private final ThreadPoolTaskExecutor workers;
+    private final Path diretorio;
+    private final long ttlMillis;
+
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+    private final Map<String, Job> porChave = new ConcurrentHashMap<>();
+    private final AtomicLong versaoDados = new AtomicLong();
+
+    private final Counter criados;
+    private final Counter reaproveitados;
+    private final Counter falhas;
+
+    public RelatorioJobService(RelatorioModelos modelos,
+                               PdfRendererService pdf,
+                               ObjectMapper mapper,
+                               MeterRegistry metrics,
+                               @Value("${app.relatorios.jobs.workers:2}") int threads,
+                               @Value("${app.relatorios.jobs.fila:20}") int fila,
+                               @Value("${app.relatorios.jobs.ttl-minutos:30}") long ttlMinutos) throws IOException {
+        this.modelos = modelos;
+        this.pdf = pdf;
+        this.mapper = mapper;
+        this.mapperHash = mapper.copy().configure(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY, true);
+        this.ttlMillis = Duration.ofMinutes(Math.max(1, ttlMinutos)).toMillis();
+        this.diretorio = Files.createTempDirectory("relatorios-");
+
+        this.workers = new ThreadPoolTaskExecutor();
+        this.workers.setCorePoolSize(Math.max(1, threads));
+        this.workers.setMaxPoolSize(Math.max(1, threads));
+        this.workers.setQueueCapacity(Math.max(1, fila));
+        this.workers.setThreadNamePrefix("relatorio-job-");
+        this.workers.initialize();
+
+        this.criados = Counter.builder("relatorios.jobs").tag("resultado", "criado").register(metrics);
+        this.reaproveitados = Counter.builder("relatorios.jobs").tag("resultado", "reaproveitado").register(metrics);
+        this.falhas = metrics.counter("relatorios.jobs.falhas");
+        Gauge.builder("relatorios.jobs.fila", workers, w -> w.getThreadPoolExecutor().getQueue().size()).register(metrics);
+    }
+
+    @PreDestroy
+    public void parar() {
+        workers.shutdown();
+        jobs.values().forEach(j -> apagar(j.arquivo));
+        apagar(diretorio);
+    }
+
+    /* ============================ API ============================ */
+
+    public RelatorioJobDTO criar(RelatorioTipo tipo, JsonNode corpo, Long uid, String geradoPor) {
+        PeriodoFilter f = lerFiltro(tipo, corpo);
+        ReportValidator.validar(f);
+
+        String chave = tipo + ":" + hash(f, geradoPor) + ":" + versaoDados.get();
+
+        Job job;
+        synchronized (this) {
+            Job existente = porChave.get(chave);
+            if (existente != null && existente.status != StatusRelatorioJob.FALHOU && !existente.expirado(ttlMillis)) {
+                reaproveitados.increment();
+                return existente.toDTO(true);
+            }
+
+            job = new Job(UUID.randomUUID().toString(), tipo, f, uid, geradoPor, chave,
+                    modelos.nomeArquivo(tipo, f));
+            jobs.put(job.id, job);
+            porChave.put(chave, job);
+        }
+
+        try {
+            final Job j = job;
+            workers.execute(() -> executar(j));
+        } catch (TaskRejectedException e) {
+            remover(job);
+            throw new RelatorioOcupadoException("Fila de relatórios cheia. Tente novamente em instantes.");
+        }
+
+        criados.increment();
+        log.info("[RELATORIO] Job {} criado: {} [{}..{}] por {}", job.id, tipo, f.getDataInicio(), f.getDataFim(), geradoPor);
+        return job.toDTO(false);
+    }
+
+    /** Só o próprio emissor enxerga o job. */
+    public Optional<RelatorioJobDTO> status(String id, Long uid) {
+        return buscar(id, uid).map(j -> j.toDTO(false));
+    }
+
+    /** Arquivo pronto do job (vazio se não existe, é de outro usuário ou ainda não terminou). */
+    public Optional<ArquivoPronto> arquivo(String id, Long uid) {
+        return buscar(id, uid)
+                .filter(j -> j.status == StatusRelatorioJob.CONCLUIDO && j.arquivo != null && Files.exists(j.arquivo))
+                .map(j -> new ArquivoPronto(j.arquivo, j.nomeArquivo, j.tamanho));
+    }
+
+    /* ============================ EXECUÇÃO ============================ */
+
+    private void executar(Job job) {
+        job.status = StatusRelatorioJob.PROCESSANDO;
+        Path arq = diretorio.resolve(job.id + ".pdf");
+
+        try {
+            Map<String, Object> model = modelos.montar(job.tipo, job.filtro, job.geradoPor);
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(arq), 64 * 1024)) {
+                pdf.renderEmSegundoPlano(job.tipo.getTemplate(), model, out);
+            }
+            job.arquivo = arq;
+            job.tamanho = Files.size(arq);
+            job.concluidoEm = LocalDateTime.now(BAHIA);
+            job.status = StatusRelatorioJob.CONCLUIDO;
+            log.info("[RELATORIO] Job {} concluído ({} bytes)", job.id, job.tamanho);
+        } catch (Exception e) {
+            apagar(arq);
+            falhas.increment();
+            job.erro = e instanceof IllegalArgumentException
+                    ? e.getMessage()
+                    : "Falha ao gerar o relatório.";
+            job.concluidoEm = LocalDateTime.now(BAHIA);
+            job.status = StatusRelatorioJob.FALHOU;
+            porChave.remove(job.chave, job);
+            log.warn("[RELATORIO] Job {} falhou: {}", job.id, e.getMessage());
+        }
+    }
+
+    /* ============================ VERSÃO DOS DADOS ============================ */
+
+    @EventListener
+    public void onDadosAlterados(DashboardDadosAlteradosEvent ev) {
+        versaoDados.incrementAndGet();
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    versaoDados.incrementAndGet();
+                }
+            });
+        }
+    }
+
+    /* ============================ LIMPEZA ============================ */
+
+    @Scheduled(fixedDelay = 60_000)
+    public void limparExpirados() {
+        int removidos = 0;
+        for (Job j : jobs.values()) {
+            boolean terminado = j.status == StatusRelatorioJob.CONCLUIDO || j.status == StatusRelatorioJob.FALHOU;
+            if (terminado && j.expirado(ttlMillis)) {
+                remover(j);
+                removidos++;
+            }
+        }
+        if (removidos > 0) log.debug("[RELATORIO] {} jobs expirados removidos", removidos);
+    }
+
+    /* ============================ INTERNOS ============================ */
+
+    private Optional<Job> buscar(String id, Long uid) {
+        Job j = id != null ? jobs.get(id) : null;
+        if (j == null || j.uid == null || !j.uid.equals(uid)) return Optional.empty();
+        return Optional.of(j);
+    }
+
+    private void remover(Job j) {
+        jobs.remove(j.id, j);
+        porChave.remove(j.chave, j);
+        apagar(j.arquivo);
+    }
+
+    private PeriodoFilter lerFiltro(RelatorioTipo tipo, JsonNode corpo) {
+        try {
+            return mapper.treeToValue(corpo, tipo.getFiltro());
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Filtro inválido para o relatório " + tipo + ".");
+        }
+    }
+
+    private String hash(PeriodoFilter f, String geradoPor) {
+        try {
+            String json = mapperHash.writeValueAsString(f) + "|" + geradoPor;
+            return DigestUtils.md5DigestAsHex(json.getBytes(StandardCharsets.UTF_8));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void apagar(Path p) {
+        if (p == null) return;
+        try {
+            Files.deleteIfExists(p);
+        } catch (IOException e) {
+            log.debug("[RELATORIO] Não foi possível apagar {}: {}", p, e.getMessage());
+        }
+    }
+
+    @Getter
+    public static final class ArquivoPronto {
+        private final Path caminho;
+        private final String nome;
+        private final long tamanho;
+
+        ArquivoPronto(Path caminho, String nome, long tamanho) {
+            this.caminho = caminho;
+            this.nome = nome;
+            this.tamanho = tamanho;
+        }
+    }
+
+    private static final class Job {
+        final String id;
+        final RelatorioTipo tipo;
+        final PeriodoFilter filtro;
+        final Long uid;
+        final String geradoPor;
+        final String chave;
+        final String nomeArquivo;
+        final LocalDateTime criadoEm = LocalDateTime.now(BAHIA);
+        final long criadoMillis = System.currentTimeMillis();
+
+        volatile StatusRelatorioJob status = StatusRelatorioJob.PENDENTE;
+        volatile Path arquivo;
+        volatile long tamanho;
+        volatile String erro;
+        volatile LocalDateTime concluidoEm;
+
+        Job(String id, RelatorioTipo tipo, PeriodoFilter filtro, Long uid, String geradoPor, String chave, String nomeArquivo) {
+            this.id = id;
+            this.tipo = tipo;
+            this.filtro = filtro;
+            this.uid = uid;
+            this.geradoPor = geradoPor;
+            this.chave = chave;
+            this.nomeArquivo = nomeArquivo;
+        }
+
+        boolean expirado(long ttlMillis) {
+            return System.currentTimeMillis() - criadoMillis > ttlMillis;
+        }
+
+        RelatorioJobDTO toDTO(boolean reaproveitado) {
+            RelatorioJobDTO dto = new RelatorioJobDTO();
+            dto.setId(id);
+            dto.setTipo(tipo);
+            dto.setStatus(status);
+            dto.setErro(erro);
+            dto.setCriadoEm(criadoEm);
+            dto.setConcluidoEm(concluidoEm);
+            dto.setNomeArquivo(nomeArquivo);
+            dto.setTamanhoBytes(status == StatusRelatorioJob.CONCLUIDO ? tamanho : null);
+            dto.setReaproveitado(reaproveitado);
+            return dto;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package br.com.pousda.pousada.reporting.application;
+
+import br.com.pousda.pousada.reporting.domain.contracts.common.PeriodoFilter;
+import br.com.pousda.pousada.reporting.domain.contracts.financeiro.FinanceiroFilter;
+import br.com.pousda.pousada.reporting.domain.contracts.hospedagens.HospedagensFilter;
+import br.com.pousda.pousada.reporting.domain.contracts.jobs.RelatorioTipo;
+import br.com.pousda.pousada.reporting.domain.contracts.quartos.QuartosFilter;
+import br.com.pousda.pousada.reporting.domain.contracts.reservas.ReservasFilter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/** Monta o model do template e o nome do arquivo de cada relatório (export direto e jobs). */
+@Component
+@RequiredArgsConstructor
+public class RelatorioModelos {
+
+    private final FinanceiroReportService financeiro;
+    private final GeralReportService geral;
+    private final HospedagensReportService hospedagens;
+    private final QuartosReportService quartos;
+    private final ReservasReportService reservas;
+
+    public Map<String, Object> montar(RelatorioTipo tipo, PeriodoFilter f, String geradoPor) {
+        Map<String, Object> model = new HashMap<>();
+        switch (tipo) {
+            case FINANCEIRO:
+                model.put("r", financeiro.gerar((FinanceiroFilter) f, geradoPor));
+                break;
+            case GERAL:
+                model.put("r", geral.gerar(f.getDataInicio(), f.getDataFim(), geradoPor));
+                // ✅ IMPORTANTE: sem isso, o fragment quebra
+                model.put("pousadaNome", "Pousada do Brejo");
+                model.put("pousadaSubtitulo", "Sistema de Gestão • Relatórios");
+                break;
+            case HOSPEDAGENS:
+                model.put("r", hospedagens.gerar((HospedagensFilter) f, geradoPor));
+                break;
+            case QUARTOS:
+                model.put("r", quartos.gerar((QuartosFilter) f, geradoPor));
+                break;
+            case RESERVAS:
+                model.put("r", reservas.gerar((ReservasFilter) f, geradoPor));
+                break;
+            default:
+                throw new IllegalArgumentException("Tipo de relatório inválido: " + tipo);
+        }
+        return model;
+    }
+
+    public String nomeArquivo(RelatorioTipo tipo, PeriodoFilter f) {
+        return String.format("%s_%s_a_%s.pdf", tipo.getPrefixoArquivo(), f.getDataInicio(), f.getDataFim());
+    }
+}
@@ -0,0 +1,8 @@
+package br.com.pousda.pousada.reporting.application;
+
+/** Limite de renderizações/jobs de relatório atingido; o cliente deve tentar de novo. */
+public class RelatorioOcupadoException extends RuntimeException {
+    public RelatorioOcupadoException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,82 @@
+package br.com.pousda.pousada.reporting.application;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+/**
+ * Arquivos temporários dos downloads de relatório (HTML intermediário, PDF e CSV prontos).
+ *
+ * Quem cria apaga ao terminar; o que sobrar (resposta que nunca chegou a ser escrita, processo
+ * interrompido no meio) é apagado pela limpeza periódica ou no shutdown.
+ */
+@Slf4j
+@Component
+public class RelatorioTemporarios {
+
+    // mais velho que isso não pertence a nenhuma geração/download em andamento
+    private static final long ORFAO_MS = 60 * 60 * 1000L;
+
+    private final Path diretorio;
+
+    public RelatorioTemporarios() throws IOException {
+        this.diretorio = Files.createTempDirectory("relatorios-tmp-");
+    }
+
+    public Path criar(String sufixo) {
+        try {
+            return Files.createTempFile(diretorio, "relatorio-", sufixo);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao criar arquivo temporário: " + e.getMessage(), e);
+        }
+    }
+
+    public void apagar(Path p) {
+        if (p == null) return;
+        try {
+            Files.deleteIfExists(p);
+        } catch (IOException e) {
+            log.debug("[RELATORIO] Não foi possível apagar {}: {}", p, e.getMessage());
+        }
+    }
+
+    /* ============================ LIMPEZA ============================ */
+
+    @Scheduled(fixedDelay = 600_000)
+    public void limparOrfaos() {
+        long limite = System.currentTimeMillis() - ORFAO_MS;
+        try (Stream<Path> arquivos = Files.list(diretorio)) {
+            arquivos.filter(p -> modificadoAntes(p, limite)).forEach(p -> {
+                log.debug("[RELATORIO] Temporário órfão apagado: {}", p.getFileName());
+                apagar(p);
+            });
+        } catch (IOException e) {
+            log.debug("[RELATORIO] Falha ao listar temporários: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void parar() {
+        try (Stream<Path> arquivos = Files.list(diretorio)) {
+            arquivos.forEach(this::apagar);
+        } catch (IOException e) {
+            log.debug("[RELATORIO] Falha ao listar temporários: {}", e.getMessage());
+        }
+        apagar(diretorio);
+    }
+
+    private static boolean modificadoAntes(Path p, long limite) {
+        try {
+            return Files.getLastModifiedTime(p).toMillis() < limite;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package br.com.pousda.pousada.reporting.domain.contracts.jobs;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class RelatorioJobDTO {
+
+    private String id;
+    private RelatorioTipo tipo;
+    private StatusRelatorioJob status;
+    private String erro;
+
+    private LocalDateTime criadoEm;
+    private LocalDateTime concluidoEm;
+
+    private String nomeArquivo;
+    private Long tamanhoBytes;
+
+    // true quando o POST devolveu um job já existente (mesmo relatório, filtro e dados)
+    private boolean reaproveitado;
+}
@@ -0,0 +1,36 @@
+package br.com.pousda.pousada.reporting.domain.contracts.jobs;
+
+import br.com.pousda.pousada.reporting.domain.contracts.common.PeriodoFilter;
+import br.com.pousda.pousada.reporting.domain.contracts.financeiro.FinanceiroFilter;
+import br.com.pousda.pousada.reporting.domain.contracts.hospedagens.HospedagensFilter;
+import br.com.pousda.pousada.reporting.domain.contracts.quartos.QuartosFilter;
+import br.com.pousda.pousada.reporting.domain.contracts.reservas.ReservasFilter;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Locale;
+
+/** Relatórios que podem ser gerados em job: template, prefixo do arquivo e tipo do filtro. */
+@Getter
+@RequiredArgsConstructor
+public enum RelatorioTipo {
+    FINANCEIRO("pdf/financeiro", "financeiro", FinanceiroFilter.class),
+    GERAL("pdf/geral", "geral", PeriodoFilter.class),
+    HOSPEDAGENS("pdf/hospedagens", "hospedagens", HospedagensFilter.class),
+    QUARTOS("pdf/quartos", "quartos", QuartosFilter.class),
+    RESERVAS("pdf/reservas", "reservas", ReservasFilter.class);
+
+    private final String template;
+    private final String prefixoArquivo;
+    private final Class<? extends PeriodoFilter> filtro;
+
+    public static RelatorioTipo from(String raw) {
+        if (raw != null) {
+            String v = raw.trim().toUpperCase(Locale.ROOT);
+            for (RelatorioTipo t : values()) {
+                if (t.name().equals(v)) return t;
+            }
+        }
+        throw new IllegalArgumentException("Tipo de relatório inválido: " + raw);
+    }
+}
@@ -0,0 +1,8 @@
+package br.com.pousda.pousada.reporting.domain.contracts.jobs;
+
+public enum StatusRelatorioJob {
+    PENDENTE,
+    PROCESSANDO,
+    CONCLUIDO,
+    FALHOU
+}
@@ -2,10 +2,15 @@ package br.com.pousda.pousada.reporting.infrastructure.readrepo.financeiro;
 
 import br.com.pousda.pousada.financeiro.domain.LancamentoFinanceiro;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.Repository;
 
+import javax.persistence.QueryHint;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
 public interface FinancialMovementReadDao extends Repository<LancamentoFinanceiro, Long> {
 
@@ -44,4 +49,30 @@ public interface FinancialMovementReadDao extends Repository<LancamentoFinanceir
             nativeQuery = true
     )
     List<Object[]> findLinhas(LocalDateTime ini, LocalDateTime fim, String tipo);
+
+    /**
+     * Mesmas linhas de findLinhas, lidas por cursor (fetch size) para exportação CSV.
+     * Precisa de transação aberta (o cursor do Postgres só existe com autocommit desligado)
+     * e o Stream deve ser fechado por quem consome.
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query(
+            value =
+                    "SELECT " +
+                            "  fm.id, " +            // [0]
+                            "  fm.data_hora, " +     // [1]
+                            "  fm.descricao, " +     // [2]
+                            "  fm.valor, " +         // [3]
+                            "  fm.tipo, " +          // [4]
+                            "  fm.criado_por_nome, " + // [5]
+                            "  fm.codigo " +         // [6]
+                            "FROM lancamento_financeiro fm " +
+                            "WHERE fm.data_hora >= :ini " +
+                            "  AND fm.data_hora < :fim " +
+                            "  AND (:tipo IS NULL OR fm.tipo = :tipo) " +
+                            "  AND fm.excluido_em IS NULL " +
+                            "ORDER BY fm.data_hora DESC",
+            nativeQuery = true
+    )
+    Stream<Object[]> streamLinhas(LocalDateTime ini, LocalDateTime fim, String tipo);
 }
@@ -0,0 +1,85 @@
+package br.com.pousda.pousada.reporting.infrastructure.readrepo.geral;
+
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Query;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Read model do relatório geral: todos os indicadores numa consulta (um CTE por tabela)
+ * e as últimas movimentações já limitadas no banco. Duas idas ao banco por relatório.
+ */
+@Repository
+public class GeralReadDao {
+
+    private static final String SQL_KPIS =
+            "WITH fin AS ( " +
+                    "   SELECT COALESCE(SUM(CASE WHEN fm.tipo = 'ENTRADA' THEN fm.valor ELSE 0 END), 0) AS entradas, " +
+                    "          COALESCE(SUM(CASE WHEN fm.tipo = 'SAIDA'   THEN fm.valor ELSE 0 END), 0) AS saidas " +
+                    "   FROM lancamento_financeiro fm " +
+                    "   WHERE fm.data_hora >= :ini " +
+                    "     AND fm.data_hora < :fim " +
+                    "     AND fm.excluido_em IS NULL " +
+                    "), res AS ( " +
+                    "   SELECT COUNT(*) AS pendentes " +
+                    "   FROM reserva r " +
+                    "   WHERE r.status = 'PENDENTE' " +
+                    "     AND CAST(r.created_at AS date) BETWEEN :diaIni AND :diaFim " +
+                    "), hosp AS ( " +
+                    "   SELECT COUNT(*) AS ativas " +
+                    "   FROM hospedagem h " +
+                    "   WHERE h.cancelado = false " +
+                    "     AND CURRENT_DATE >= CAST(h.data_entrada AS date) " +
+                    "     AND CURRENT_DATE <= CAST(h.data_saida AS date) " +
+                    "), qua AS ( " +
+                    "   SELECT COUNT(*) FILTER (WHERE CAST(q.status AS text) = 'DISPONIVEL') AS disponiveis, " +
+                    "          COUNT(*) FILTER (WHERE CAST(q.status AS text) = 'OCUPADO')    AS ocupados, " +
+                    "          COUNT(*) FILTER (WHERE CAST(q.status AS text) = 'MANUTENCAO') AS manutencao " +
+                    "   FROM quarto q " +
+                    ") " +
+                    "SELECT fin.entradas, fin.saidas, res.pendentes, hosp.ativas, " +
+                    "       qua.disponiveis, qua.ocupados, qua.manutencao " +
+                    "FROM fin, res, hosp, qua";
+
+    @PersistenceContext
+    private EntityManager em;
+
+    /**
+     * Financeiro no intervalo [ini, fim) de data_hora; reservas pendentes criadas entre diaIni e diaFim;
+     * hospedagens ativas e quartos por status no momento.
+     *
+     * 0 entradas, 1 saidas, 2 reservas pendentes, 3 hospedagens ativas,
+     * 4 quartos disponíveis, 5 quartos ocupados, 6 quartos em manutenção
+     */
+    public Object[] kpis(LocalDateTime ini, LocalDateTime fim, LocalDate diaIni, LocalDate diaFim) {
+        Query q = em.createNativeQuery(SQL_KPIS);
+        q.setParameter("ini", ini);
+        q.setParameter("fim", fim);
+        q.setParameter("diaIni", diaIni);
+        q.setParameter("diaFim", diaFim);
+        return (Object[]) q.getSingleResult();
+    }
+
+    /** Mesmas colunas de FinancialMovementReadDao.findLinhas, só as mais recentes. */
+    public List<Object[]> ultimasMovimentacoes(LocalDateTime ini, LocalDateTime fim, int limite) {
+        Query q = em.createNativeQuery(
+                "SELECT fm.id, fm.data_hora, fm.descricao, fm.valor, fm.tipo, fm.criado_por_nome, fm.codigo " +
+                        "FROM lancamento_financeiro fm " +
+                        "WHERE fm.data_hora >= :ini " +
+                        "  AND fm.data_hora < :fim " +
+                        "  AND fm.excluido_em IS NULL " +
+                        "ORDER BY fm.data_hora DESC " +
+                        "LIMIT :limite"
+        );
+        q.setParameter("ini", ini);
+        q.setParameter("fim", fim);
+        q.setParameter("limite", limite);
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = q.getResultList();
+        return rows;
+    }
+}
@@ -7,10 +7,68 @@ import javax.persistence.PersistenceContext;
 import javax.persistence.Query;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
 @Repository
 public class HospedagensReadDao {
 
+    /** Linhas buscadas por ida ao banco na exportação por cursor. */
+    private static final int FETCH_SIZE = 500;
+
+    // mesmas regras do CASE de status abaixo, sem precisar derivar o status de cada linha
+    private static final String ATIVA =
+            "(h.cancelado IS NOT TRUE AND CURRENT_DATE <= CAST(h.data_saida AS date))";
+    private static final String FINALIZADA =
+            "(h.cancelado IS NOT TRUE AND CURRENT_DATE > CAST(h.data_saida AS date))";
+
+    /** :status = TODAS | ATIVAS | INATIVAS ; :tipo = TODOS ou o tipo em maiúsculas */
+    private static final String FILTRO =
+            "(:status = 'TODAS' " +
+                    "  OR (:status = 'ATIVAS'   AND " + ATIVA + ") " +
+                    "  OR (:status = 'INATIVAS' AND NOT " + ATIVA + ")) " +
+                    "AND (:tipo = 'TODOS' OR UPPER(CAST(h.tipo AS varchar)) = :tipo)";
+
+    private static final String SQL_LISTAR =
+            "SELECT " +
+                    "  h.codigo_hospedagem                         AS codigo, " +
+                    "  h.nome                                      AS hospede, " +
+                    "  COALESCE(q.numero, '')                      AS quarto, " +
+                    "  CAST(h.data_entrada AS date)                AS entrada, " +
+                    "  CAST(h.data_saida   AS date)                AS saida, " +
+                    // diárias: (date - date) em Postgres já retorna integer. Envolvemos em CAST explícito.
+                    "  CAST(GREATEST(0, (CAST(h.data_saida AS date) - CAST(h.data_entrada AS date))) AS integer) AS diarias, " +
+                    "  COALESCE(h.criado_por, '')                  AS criado_por, " +
+                    "  COALESCE(h.forma_pagamento, '')             AS forma_pagamento, " +
+                    "  COALESCE(h.observacoes, '')                 AS observacao, " +
+                    "  CAST(COALESCE(h.valor_total, 0) AS numeric(18,2)) AS valor, " +
+                    "  CASE " +
+                    "    WHEN h.cancelado = true THEN 'CANCELADA' " +
+                    "    WHEN CURRENT_DATE >  CAST(h.data_saida   AS date) THEN 'FINALIZADA' " +
+                    "    WHEN CURRENT_DATE >= CAST(h.data_entrada AS date) " +
+                    "     AND CURRENT_DATE <= CAST(h.data_saida   AS date) THEN 'ATIVA' " +
+                    "    ELSE 'ATIVA' " +
+                    "  END                                         AS status, " +
+                    "  CAST(h.tipo AS varchar)                     AS tipo " +
+                    "FROM hospedagem h " +
+                    "LEFT JOIN quarto q ON q.id = h.quarto_id " +
+                    "WHERE CAST(h.data_entrada AS date) <= :fim " +
+                    "  AND CAST(h.data_saida   AS date) >= :ini " +
+                    "  AND " + FILTRO;
+
+    private static final String SQL_RESUMO =
+            "SELECT " +
+                    "  COUNT(*)                                    AS total, " +
+                    "  COUNT(*) FILTER (WHERE " + ATIVA + ")       AS ativas, " +
+                    "  COUNT(*) FILTER (WHERE NOT " + ATIVA + ")   AS inativas, " +
+                    "  COALESCE(SUM(GREATEST(0, (CAST(h.data_saida AS date) - CAST(h.data_entrada AS date)))), 0) AS diarias, " +
+                    "  ROUND(AVG(CAST(COALESCE(h.valor_total, 0) AS numeric)) FILTER (WHERE " + FINALIZADA + "), 2) AS ticket_medio " +
+                    "FROM hospedagem h " +
+                    "WHERE CAST(h.data_entrada AS date) <= :fim " +
+                    "  AND CAST(h.data_saida   AS date) >= :ini " +
+                    "  AND " + FILTRO;
+
     @PersistenceContext
     private EntityManager em;
 
@@ -28,54 +86,41 @@ public class HospedagensReadDao {
      * 9 valor (NUMERIC)
      * 10 status (TEXT)     -> derivado
      * 11 tipo   (TEXT)
+     *
+     * status: TODAS | ATIVAS | INATIVAS ; tipo: TODOS ou o tipo em maiúsculas (ver HospedagensReportService).
      */
-    public List<Object[]> listar(LocalDate ini, LocalDate fim) {
-        Query q = em.createNativeQuery(
-                "SELECT " +
-                        "  h.codigo_hospedagem                         AS codigo, " +
-                        "  h.nome                                      AS hospede, " +
-                        "  COALESCE(q.numero, '')                      AS quarto, " +
-                        "  CAST(h.data_entrada AS date)                AS entrada, " +
-                        "  CAST(h.data_saida   AS date)                AS saida, " +
-                        // diárias: (date - date) em Postgres já retorna integer. Envolvemos em CAST explícito.
-                        "  CAST(GREATEST(0, (CAST(h.data_saida AS date) - CAST(h.data_entrada AS date))) AS integer) AS diarias, " +
-                        "  COALESCE(h.criado_por, '')                  AS criado_por, " +
-                        "  COALESCE(h.forma_pagamento, '')             AS forma_pagamento, " +
-                        "  COALESCE(h.observacoes, '')                 AS observacao, " +
-                        "  CAST(COALESCE(h.valor_total, 0) AS numeric(18,2)) AS valor, " +
-                        "  CASE " +
-                        "    WHEN h.cancelado = true THEN 'CANCELADA' " +
-                        "    WHEN CURRENT_DATE >  CAST(h.data_saida   AS date) THEN 'FINALIZADA' " +
-                        "    WHEN CURRENT_DATE >= CAST(h.data_entrada AS date) " +
-                        "     AND CURRENT_DATE <= CAST(h.data_saida   AS date) THEN 'ATIVA' " +
-                        "    ELSE 'ATIVA' " +
-                        "  END                                         AS status, " +
-                        "  CAST(h.tipo AS varchar)                     AS tipo " +
-                        "FROM hospedagem h " +
-                        "LEFT JOIN quarto q ON q.id = h.quarto_id " +
-                        "WHERE CAST(h.data_entrada AS date) <= :fim " +
-                        "  AND CAST(h.data_saida   AS date) >= :ini"
-        );
-        q.setParameter("ini", ini);
-        q.setParameter("fim", fim);
+    public List<Object[]> listar(LocalDate ini, LocalDate fim, String status, String tipo) {
+        Query q = filtrada(SQL_LISTAR, ini, fim, status, tipo);
         @SuppressWarnings("unchecked")
         List<Object[]> rows = q.getResultList();
         return rows;
     }
 
+    /**
+     * Mesmas colunas de listar, lidas por cursor (fetch size) em vez de tudo em memória.
+     * Precisa de transação aberta e o Stream deve ser fechado por quem consome.
+     */
+    @SuppressWarnings("unchecked")
+    public Stream<Object[]> stream(LocalDate ini, LocalDate fim, String status, String tipo) {
+        Query q = filtrada(SQL_LISTAR, ini, fim, status, tipo);
+        q.setHint(HINT_FETCH_SIZE, FETCH_SIZE);
+        return q.getResultStream();
+    }
 
-    public long countAtivas() {
-        Query q = em.createNativeQuery(
-                "SELECT COUNT(*) " +
-                        "FROM hospedagem h " +
-                        "WHERE h.cancelado = false " +
-                        "  AND CURRENT_DATE >= CAST(h.data_entrada AS date) " +
-                        "  AND CURRENT_DATE <= CAST(h.data_saida AS date)"
-        );
-
-        Object result = q.getSingleResult();
-        if (result == null) return 0L;
-        return ((Number) result).longValue();
+    /**
+     * Resumo do mesmo recorte de listar, calculado no banco:
+     * [0] total, [1] ativas, [2] inativas, [3] diárias, [4] ticket médio das finalizadas (null se nenhuma)
+     */
+    public Object[] resumo(LocalDate ini, LocalDate fim, String status, String tipo) {
+        return (Object[]) filtrada(SQL_RESUMO, ini, fim, status, tipo).getSingleResult();
     }
 
+    private Query filtrada(String sql, LocalDate ini, LocalDate fim, String status, String tipo) {
+        Query q = em.createNativeQuery(sql);
+        q.setParameter("ini", ini);
+        q.setParameter("fim", fim);
+        q.setParameter("status", status);
+        q.setParameter("tipo", tipo);
+        return q;
+    }
 }
@@ -15,13 +15,6 @@ public interface QuartosReadDao extends Repository<Quarto, Long> {
             nativeQuery = true)
     List<Object[]> listarTodos();
 
-    // ============================
-    // ✅ CONTADORES POR STATUS
-    // ============================
-
-    @Query(value = "SELECT COUNT(*) FROM quarto q WHERE CAST(q.status AS text) = :status", nativeQuery = true)
-    long countByStatus(@Param("status") String status);
-
     /**
      * Ocupação média no período (percentual de dias com ao menos uma hospedagem ativa).
      * Evita o operador :: e usa CAST explícito para não quebrar via JPA.
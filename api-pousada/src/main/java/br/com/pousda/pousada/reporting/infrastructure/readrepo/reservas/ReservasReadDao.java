@@ -2,11 +2,16 @@ package br.com.pousda.pousada.reporting.infrastructure.readrepo.reservas;
 
 import br.com.pousda.pousada.reservas.domain.Reserva;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.Repository;
 import org.springframework.data.repository.query.Param;
 
+import javax.persistence.QueryHint;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
 public interface ReservasReadDao extends Repository<Reserva, Long> {
 
@@ -25,6 +30,25 @@ public interface ReservasReadDao extends Repository<Reserva, Long> {
             nativeQuery = true)
     List<Object[]> listar(@Param("ini") LocalDate ini, @Param("fim") LocalDate fim);
 
+    /** Colunas de listar, já filtradas por status (TODAS ou o status em maiúsculas), lidas por cursor. Exige transação. */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query(value =
+            "SELECT " +
+                    "  r.codigo, " +
+                    "  r.nome, " +
+                    "  COALESCE(q.numero,'') AS numero_quarto, " +
+                    "  CAST(r.created_at AS date)      AS criada_em, " +
+                    "  CAST(r.data_entrada AS date)    AS checkin_previsto, " +
+                    "  CAST(r.status AS text)          AS status " +
+                    "FROM reserva r " +
+                    "LEFT JOIN quarto q ON q.id = r.quarto_id " +
+                    "WHERE CAST(r.created_at AS date) BETWEEN :ini AND :fim " +
+                    "  AND (:status = 'TODAS' OR UPPER(CAST(r.status AS text)) = :status) " +
+                    "ORDER BY r.created_at DESC",
+            nativeQuery = true)
+    Stream<Object[]> streamLinhas(@Param("ini") LocalDate ini, @Param("fim") LocalDate fim,
+                                  @Param("status") String status);
+
     @Query(value =
             "SELECT COUNT(*) FROM reserva " +
                     "WHERE status = 'PENDENTE' " +
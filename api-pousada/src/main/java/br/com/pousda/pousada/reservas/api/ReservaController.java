@@ -6,6 +6,7 @@ import br.com.pousda.pousada.reservas.dtos.ReservaDTO;
 import br.com.pousda.pousada.reservas.dtos.ReservaResponseDTO;
 import br.com.pousda.pousada.reservas.dtos.ConfirmarReservaDTO;
 import br.com.pousda.pousada.quartos.domain.Quarto;
+import br.com.pousda.pousada.util.CursorPaginaDTO;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
@@ -28,6 +29,16 @@ public class ReservaController {
         return ResponseEntity.ok(reservaService.listarReservas());
     }
 
+    // Listagem por cursor: passe proximoCursor da resposta anterior em "cursor"
+    @GetMapping("/pagina")
+    public ResponseEntity<CursorPaginaDTO<ReservaResponseDTO>> listarPaginado(
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(defaultValue = "20") int tamanho
+    ) {
+        return ResponseEntity.ok(reservaService.listarReservasPaginado(status, cursor, tamanho));
+    }
+
     @GetMapping("/status/{status}")
     public ResponseEntity<List<ReservaResponseDTO>> listarPorStatus(@PathVariable String status) {
         return ResponseEntity.ok(reservaService.listarReservasPorStatus(status));
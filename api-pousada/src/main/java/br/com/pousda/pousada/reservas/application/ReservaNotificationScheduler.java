@@ -1,12 +1,15 @@
 package br.com.pousda.pousada.reservas.application;
 
+import br.com.pousda.pousada.dashboard.domain.DashboardDadosAlteradosEvent;
 import br.com.pousda.pousada.notificacoes.application.recipients.NotificationRecipientsService;
 import br.com.pousda.pousada.notificacoes.reserva.application.ReservaNotifier;
+import br.com.pousda.pousada.quartos.application.ocupacao.OcupacaoQuartoIndex;
 import br.com.pousda.pousada.reservas.domain.Reserva;
 import br.com.pousda.pousada.reservas.domain.StatusReserva;
 import br.com.pousda.pousada.reservas.infra.ReservaRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -26,6 +29,8 @@ public class ReservaNotificationScheduler {
     private final ReservaRepository reservaRepository;
     private final ReservaNotifier reservaNotifier;
     private final NotificationRecipientsService recipientsService;
+    private final OcupacaoQuartoIndex ocupacao;
+    private final ApplicationEventPublisher eventos;
 
     private static final ZoneId ZONE_ID = ZoneId.of("America/Sao_Paulo");
 
@@ -162,6 +167,8 @@ public class ReservaNotificationScheduler {
                 reserva.setMotivoCancelamento("Cancelada automaticamente por falta de confirmação");
 
                 reservaRepository.save(reserva);
+                ocupacao.reservaSalva(reserva);
+                eventos.publishEvent(new DashboardDadosAlteradosEvent("RESERVA", reserva.getDataEntrada()));
 
                 // Notificar cancelamento individual
                 reservaNotifier.naoConfirmadaCancelada(
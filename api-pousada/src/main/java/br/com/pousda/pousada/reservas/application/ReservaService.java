@@ -1,10 +1,13 @@
 package br.com.pousda.pousada.reservas.application;
 
+import br.com.pousda.pousada.dashboard.domain.DashboardDadosAlteradosEvent;
 import br.com.pousda.pousada.exception.QuartoOcupadoException;
 import br.com.pousda.pousada.exception.ReservaNaoEncontradaException;
 import br.com.pousda.pousada.exception.ValidacaoException;
 import br.com.pousda.pousada.hospedagens.application.HospedagemService;
 import br.com.pousda.pousada.notificacoes.application.facade.NotifierFacade;
+import br.com.pousda.pousada.quartos.application.ocupacao.DisponibilidadeService;
+import br.com.pousda.pousada.quartos.application.ocupacao.OcupacaoQuartoIndex;
 import br.com.pousda.pousada.quartos.domain.Quarto;
 import br.com.pousda.pousada.quartos.domain.enuns.StatusQuarto;
 import br.com.pousda.pousada.quartos.infra.QuartoRepository;
@@ -15,10 +18,15 @@ import br.com.pousda.pousada.reservas.dtos.ReservaDTO;
 import br.com.pousda.pousada.reservas.dtos.ReservaResponseDTO;
 import br.com.pousda.pousada.reservas.infra.ReservaRepository;
 import br.com.pousda.pousada.security.SecurityUtils;
+import br.com.pousda.pousada.sequencias.application.SequenciaMensalService;
+import br.com.pousda.pousada.sequencias.domain.enuns.TipoSequencia;
 import br.com.pousda.pousada.usuarios.domain.Usuario;
 import br.com.pousda.pousada.usuarios.infra.UsuarioRepository;
+import br.com.pousda.pousada.util.CursorPaginaDTO;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
 import javax.transaction.Transactional;
@@ -26,8 +34,15 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.YearMonth;
 import java.time.ZoneId;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -36,12 +51,17 @@ import java.util.stream.Collectors;
 public class ReservaService {
 
     private static final ZoneId ZONE_BR = ZoneId.of("America/Bahia");
+    private static final int TAMANHO_MAXIMO_PAGINA = 100;
 
     @Autowired private ReservaRepository reservaRepository;
     @Autowired private QuartoRepository quartoRepository;
     @Autowired private HospedagemService hospedagemService;
     @Autowired private NotifierFacade notifier;
     @Autowired private UsuarioRepository usuarioRepository;
+    @Autowired private OcupacaoQuartoIndex ocupacao;
+    @Autowired private DisponibilidadeService disponibilidade;
+    @Autowired private SequenciaMensalService sequencias;
+    @Autowired private ApplicationEventPublisher eventos;
 
     /* ==================== helpers de usuário ==================== */
 
@@ -56,18 +76,9 @@ public class ReservaService {
     }
 
     private String gerarCodigoReservaMensal() {
-        LocalDate hoje = LocalDate.now(ZONE_BR);
-        YearMonth ym = YearMonth.from(hoje);
-        final String prefix = String.format("%04d%02d", ym.getYear(), ym.getMonthValue()); // Ex: 202511
-
-        // Busca a última reserva criada no mês corrente
-        return reservaRepository.findTopByCodigoStartingWithOrderByCodigoDesc(prefix)
-                .map(ultima -> {
-                    String sufix = ultima.getCodigo().substring(prefix.length());
-                    int next = Integer.parseInt(sufix) + 1;
-                    return prefix + String.format("%03d", next);
-                })
-                .orElse(prefix + "001");
+        return sequencias.proximoCodigo(TipoSequencia.RESERVA, YearMonth.now(ZONE_BR),
+                prefix -> reservaRepository.findTopByCodigoStartingWithOrderByCodigoDesc(prefix)
+                        .map(Reserva::getCodigo));
     }
 
     /* ==================== validação de criação/edição ==================== */
@@ -201,15 +212,43 @@ public class ReservaService {
                 .orElse(null);
     }
 
+    // nomes de autor/confirmador/cancelador de várias reservas num único SELECT
+    private Map<Long, String> nomesUsuarios(Collection<Reserva> reservas) {
+        Set<Long> ids = new HashSet<>();
+        for (Reserva r : reservas) {
+            if (r.getCreatedBy() != null) ids.add(r.getCreatedBy());
+            if (r.getConfirmedBy() != null) ids.add(r.getConfirmedBy());
+            if (r.getCancelledBy() != null) ids.add(r.getCancelledBy());
+        }
+        if (ids.isEmpty()) return Collections.emptyMap();
+
+        Map<Long, String> nomes = new HashMap<>();
+        for (Object[] row : usuarioRepository.findNomesPorIds(ids)) {
+            nomes.put((Long) row[0], (String) row[1]);
+        }
+        return nomes;
+    }
+
+    private List<ReservaResponseDTO> toResponseDTOs(List<Reserva> reservas) {
+        Map<Long, String> nomes = nomesUsuarios(reservas);
+        return reservas.stream()
+                .map(r -> toResponseDTO(r, nomes::get))
+                .collect(Collectors.toList());
+    }
+
     private ReservaResponseDTO toResponseDTO(Reserva r) {
+        return toResponseDTO(r, this::getNomeUsuario);
+    }
+
+    private ReservaResponseDTO toResponseDTO(Reserva r, Function<Long, String> nomeUsuario) {
         Long autorId = r.getCreatedBy();
-        String autorNome = getNomeUsuario(autorId);
+        String autorNome = autorId != null ? nomeUsuario.apply(autorId) : null;
 
         Long confirmadorId = r.getConfirmedBy();
-        String confirmadorNome = getNomeUsuario(confirmadorId);
+        String confirmadorNome = confirmadorId != null ? nomeUsuario.apply(confirmadorId) : null;
 
         Long canceladorId = r.getCancelledBy();
-        String canceladorNome = getNomeUsuario(canceladorId);
+        String canceladorNome = canceladorId != null ? nomeUsuario.apply(canceladorId) : null;
 
         return new ReservaResponseDTO(
                 r.getId(),
@@ -283,6 +322,8 @@ public class ReservaService {
         }
 
         reservaRepository.save(r);
+        ocupacao.reservaSalva(r);
+        eventos.publishEvent(new DashboardDadosAlteradosEvent("RESERVA", r.getDataEntrada()));
         notifier.reservaCriada(r, autor);
 
         return toResponseDTO(r);
@@ -339,6 +380,8 @@ public class ReservaService {
         r.setValorTotal(dto.getValorDiaria() * dto.getNumeroDiarias());
 
         reservaRepository.save(r);
+        ocupacao.reservaSalva(r);
+        eventos.publishEvent(new DashboardDadosAlteradosEvent("RESERVA", antes.getDataEntrada(), r.getDataEntrada()));
         notifier.reservaAtualizada(antes, r, autor);
 
         return toResponseDTO(r);
@@ -361,6 +404,8 @@ public class ReservaService {
         );
 
         reservaRepository.save(r);
+        ocupacao.reservaSalva(r);
+        eventos.publishEvent(new DashboardDadosAlteradosEvent("RESERVA", r.getDataEntrada()));
         notifier.reservaCancelada(r, autor, r.getMotivoCancelamento());
     }
 
@@ -394,6 +439,8 @@ public class ReservaService {
             r.setConfirmedEm(LocalDateTime.now());
 
             reservaRepository.save(r);
+            ocupacao.reservaSalva(r);
+            eventos.publishEvent(new DashboardDadosAlteradosEvent("RESERVA", r.getDataEntrada()));
 
             log.info("Reserva {} marcada como CONFIRMADA. Criando hospedagem...", r.getCodigo());
 
@@ -424,19 +471,33 @@ public class ReservaService {
     /* ==================== LISTAR ==================== */
 
     public List<ReservaResponseDTO> listarReservas() {
-        return reservaRepository.findAll()
-                .stream()
-                .map(this::toResponseDTO)
-                .collect(Collectors.toList());
+        return toResponseDTOs(reservaRepository.findAllComQuarto(null));
     }
 
     public List<ReservaResponseDTO> listarReservasPorStatus(String status) {
+        return toResponseDTOs(reservaRepository.findAllComQuarto(parseStatus(status)));
+    }
+
+    /**
+     * Listagem por cursor (keyset em id desc): 2 queries por página, independente do tamanho.
+     * cursor = proximoCursor da página anterior; null na primeira página.
+     */
+    public CursorPaginaDTO<ReservaResponseDTO> listarReservasPaginado(String status, Long cursor, int tamanho) {
+        int t = Math.min(Math.max(1, tamanho), TAMANHO_MAXIMO_PAGINA);
+        StatusReserva statusReserva = (status == null || status.isBlank()) ? null : parseStatus(status);
+
+        // pede um a mais só para saber se existe próxima página
+        List<Reserva> linhas = reservaRepository.findPaginaKeyset(statusReserva, cursor, PageRequest.of(0, t + 1));
+        boolean temMais = linhas.size() > t;
+        List<Reserva> pagina = temMais ? linhas.subList(0, t) : linhas;
+
+        Long proximo = temMais ? pagina.get(pagina.size() - 1).getId() : null;
+        return new CursorPaginaDTO<>(toResponseDTOs(pagina), proximo, temMais);
+    }
+
+    private StatusReserva parseStatus(String status) {
         try {
-            StatusReserva statusReserva = StatusReserva.valueOf(status.toUpperCase());
-            return reservaRepository.findByStatus(statusReserva)
-                    .stream()
-                    .map(this::toResponseDTO)
-                    .collect(Collectors.toList());
+            return StatusReserva.valueOf(status.toUpperCase());
         } catch (IllegalArgumentException e) {
             throw new ValidacaoException("Status inválido: " + status);
         }
@@ -459,17 +520,7 @@ public class ReservaService {
         if (dataSaida.isBefore(dataEntrada))
             throw new ValidacaoException("Data de saída não pode ser anterior à data de entrada.");
 
-        List<Quarto> todos = quartoRepository.findAll();
-        return todos.stream()
-                .filter(q -> q.getStatus() != StatusQuarto.MANUTENCAO)
-                .filter(q -> {
-                    try {
-                        validarConflitoDeReservasMelhorado(q, dataEntrada, dataSaida, null);
-                        return true;
-                    } catch (ValidacaoException e) {
-                        return false;
-                    }
-                })
-                .collect(Collectors.toList());
+        // reservas ativas + hospedagens, sem uma query por quarto
+        return disponibilidade.quartosLivres(dataEntrada, dataSaida, null, null);
     }
 }
@@ -3,6 +3,7 @@ package br.com.pousda.pousada.reservas.infra;
 import br.com.pousda.pousada.quartos.domain.Quarto;
 import br.com.pousda.pousada.reservas.domain.Reserva;
 import br.com.pousda.pousada.reservas.domain.StatusReserva;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -30,6 +31,10 @@ public interface ReservaRepository extends JpaRepository<Reserva, Long> {
             @Param("dataSaidaNova") LocalDate dataSaidaNova
     );
 
+    // Intervalos para o índice de ocupação: [0]=id, [1]=quartoId, [2]=dataEntrada, [3]=dataSaida
+    @Query("SELECT r.id, r.quarto.id, r.dataEntrada, r.dataSaida FROM Reserva r WHERE r.status IN :statuses")
+    List<Object[]> findIntervalosPorStatus(@Param("statuses") List<StatusReserva> statuses);
+
     @Query(
             "SELECT r FROM Reserva r " +
                     "WHERE (:inicio IS NULL OR r.dataEntrada >= :inicio) " +
@@ -91,6 +96,21 @@ public interface ReservaRepository extends JpaRepository<Reserva, Long> {
 
     List<Reserva> findByStatus(StatusReserva status);
 
+    // Listagens: quarto vem no mesmo SELECT (evita um select por quarto)
+    @Query("SELECT r FROM Reserva r JOIN FETCH r.quarto q " +
+            "WHERE (:status IS NULL OR r.status = :status) " +
+            "ORDER BY r.id DESC")
+    List<Reserva> findAllComQuarto(@Param("status") StatusReserva status);
+
+    // Keyset: próxima página = ids menores que o último id entregue (cursor)
+    @Query("SELECT r FROM Reserva r JOIN FETCH r.quarto q " +
+            "WHERE (:status IS NULL OR r.status = :status) " +
+            "AND (:cursor IS NULL OR r.id < :cursor) " +
+            "ORDER BY r.id DESC")
+    List<Reserva> findPaginaKeyset(@Param("status") StatusReserva status,
+                                   @Param("cursor") Long cursor,
+                                   Pageable limite);
+
     List<Reserva> findByStatusIn(List<StatusReserva> statuses);
 
     List<Reserva> findByDataEntradaBetween(LocalDate start, LocalDate end);
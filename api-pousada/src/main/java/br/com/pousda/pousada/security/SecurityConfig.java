@@ -102,6 +102,9 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
                 .hasAnyRole("ADMIN", "DEV")
                 // ============================================
 
+                // MÉTRICAS (actuator)
+                .antMatchers("/actuator/**").hasAnyRole("ADMIN", "DEV")
+
                 // QUALQUER OUTRA ROTA → precisa estar logado
                 .anyRequest().authenticated();
 
@@ -44,9 +44,15 @@ public class WebSocketAuthInterceptor implements ChannelInterceptor {
                 Authentication authentication = jwtFilter.resolveAuthentication(token);
 
                 if (authentication != null && authentication.isAuthenticated()) {
-                    // 3. Define a autenticação no cabeçalho da mensagem
-                    // Isso permite que o Spring Security e o SimpMessagingTemplate (para /user/) identifiquem o usuário.
-                    accessor.setUser(authentication);
+                    // 3. Define o usuário da sessão STOMP. O nome é o id, que é como o
+                    // WebSocketPublisher endereça os destinos /user/{uid}/queue/notifications.
+                    Object principal = authentication.getPrincipal();
+                    if (principal instanceof AuthPrincipal && ((AuthPrincipal) principal).getId() != null) {
+                        String uid = String.valueOf(((AuthPrincipal) principal).getId());
+                        accessor.setUser(() -> uid);
+                    } else {
+                        accessor.setUser(authentication);
+                    }
                     return message;
                 }
                 // Se a autenticação falhar aqui, a SecurityConfig de canais (passo 3) vai bloquear com 403.
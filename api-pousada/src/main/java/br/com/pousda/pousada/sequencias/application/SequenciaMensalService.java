@@ -0,0 +1,108 @@
+package br.com.pousda.pousada.sequencias.application;
+
+import br.com.pousda.pousada.sequencias.domain.enuns.TipoSequencia;
+import br.com.pousda.pousada.sequencias.infra.SequenciaMensalRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.YearMonth;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Códigos mensais yyyyMM + seq(001..) para hospedagem, reserva e lançamento financeiro.
+ *
+ * Hi/lo: cada nó reserva um bloco de N números na tabela sequencia_mensal (transação própria,
+ * commitada na hora) e entrega os números do bloco a partir da memória. Não há "SELECT max + 1",
+ * então check-ins simultâneos não colidem.
+ *
+ * O bloco padrão é 1 (app.sequencias.bloco): o sufixo tem só 3 dígitos e a semente vem do maior
+ * código em ordem de texto, então cada número perdido num restart/nó encurta o mês e passar de 999
+ * quebraria essa ordem. Bloco maior só vale com volume que justifique os buracos.
+ */
+@Slf4j
+@Service
+public class SequenciaMensalService {
+
+    private static final int MAX_TENTATIVAS = 3;
+
+    private final SequenciaMensalRepository repo;
+    private final TransactionTemplate novaTransacao;
+    private final long tamanhoBloco;
+
+    private final Map<String, Bloco> blocos = new ConcurrentHashMap<>();
+
+    public SequenciaMensalService(SequenciaMensalRepository repo,
+                                  PlatformTransactionManager txManager,
+                                  @Value("${app.sequencias.bloco:1}") long tamanhoBloco) {
+        this.repo = repo;
+        this.novaTransacao = new TransactionTemplate(txManager);
+        this.novaTransacao.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.tamanhoBloco = Math.max(1, tamanhoBloco);
+    }
+
+    /**
+     * @param ultimoCodigoDoMes usado só na primeira vez que o mês aparece na tabela,
+     *                          para continuar de onde os códigos já gravados pararam
+     */
+    public String proximoCodigo(TipoSequencia tipo, YearMonth mes,
+                                Function<String, Optional<String>> ultimoCodigoDoMes) {
+        String prefixo = String.format("%04d%02d", mes.getYear(), mes.getMonthValue());
+        String chave = tipo.name() + ":" + prefixo;
+
+        Bloco bloco = blocos.computeIfAbsent(chave, k -> new Bloco());
+        long seq;
+        synchronized (bloco) {
+            if (bloco.proximo > bloco.limite) {
+                long hi = reservarBloco(chave, () -> sufixo(prefixo, ultimoCodigoDoMes.apply(prefixo)));
+                bloco.proximo = hi - tamanhoBloco + 1;
+                bloco.limite = hi;
+            }
+            seq = bloco.proximo++;
+        }
+        return prefixo + String.format("%03d", seq);
+    }
+
+    /* ============================ BANCO ============================ */
+
+    private long reservarBloco(String chave, LongSupplier semente) {
+        for (int tentativa = 0; tentativa < MAX_TENTATIVAS; tentativa++) {
+            Long hi = novaTransacao.execute(s ->
+                    repo.avancar(chave, tamanhoBloco) > 0 ? repo.valorAtual(chave) : null);
+            if (hi != null) return hi;
+
+            // primeira vez no mês: cria a linha já apontando para o último código existente
+            long base = semente.getAsLong();
+            try {
+                novaTransacao.execute(s -> repo.criar(chave, base));
+                log.info("[SEQ] Sequência {} iniciada em {}", chave, base);
+            } catch (DataIntegrityViolationException e) {
+                // outro nó criou antes; o próximo avancar() resolve
+            }
+        }
+        throw new IllegalStateException("Não foi possível reservar bloco para a sequência " + chave);
+    }
+
+    private static long sufixo(String prefixo, Optional<String> ultimoCodigo) {
+        return ultimoCodigo
+                .filter(c -> c.length() > prefixo.length())
+                .map(c -> {
+                    try { return Long.parseLong(c.substring(prefixo.length())); }
+                    catch (NumberFormatException e) { return 0L; }
+                })
+                .orElse(0L);
+    }
+
+    private static final class Bloco {
+        long proximo = 1;
+        long limite = 0;
+    }
+}
@@ -0,0 +1,23 @@
+package br.com.pousda.pousada.sequencias.domain;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import javax.persistence.*;
+
+/**
+ * Contador por (tipo, mês). Ex.: chave "RESERVA:202511", ultimoValor = 40
+ * significa que os códigos 202511001..202511040 já foram entregues a algum nó.
+ */
+@Entity
+@Getter @Setter
+@Table(name = "sequencia_mensal")
+public class SequenciaMensal {
+
+    @Id
+    @Column(length = 40)
+    private String chave;
+
+    @Column(name = "ultimo_valor", nullable = false)
+    private Long ultimoValor;
+}
@@ -0,0 +1,7 @@
+package br.com.pousda.pousada.sequencias.domain.enuns;
+
+public enum TipoSequencia {
+    HOSPEDAGEM,
+    RESERVA,
+    LANCAMENTO_FINANCEIRO
+}
@@ -0,0 +1,25 @@
+package br.com.pousda.pousada.sequencias.infra;
+
+import br.com.pousda.pousada.sequencias.domain.SequenciaMensal;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface SequenciaMensalRepository extends JpaRepository<SequenciaMensal, String> {
+
+    // o UPDATE segura o lock da linha até o commit: dois nós nunca recebem o mesmo bloco
+    @Modifying
+    @Query(value = "UPDATE sequencia_mensal SET ultimo_valor = ultimo_valor + :bloco WHERE chave = :chave",
+            nativeQuery = true)
+    int avancar(@Param("chave") String chave, @Param("bloco") long bloco);
+
+    @Query(value = "SELECT ultimo_valor FROM sequencia_mensal WHERE chave = :chave", nativeQuery = true)
+    Long valorAtual(@Param("chave") String chave);
+
+    // INSERT puro (sem merge): se outro nó criou a linha antes, estoura unique e a gente só tenta de novo
+    @Modifying
+    @Query(value = "INSERT INTO sequencia_mensal (chave, ultimo_valor) VALUES (:chave, :valor)",
+            nativeQuery = true)
+    int criar(@Param("chave") String chave, @Param("valor") long valor);
+}
@@ -2,6 +2,7 @@ package br.com.pousda.pousada.usuarios.aplication;
 
 import br.com.pousda.pousada.notificacoes.application.facade.NotifierFacade;
 import br.com.pousda.pousada.usuarios.domain.Usuario;
+import br.com.pousda.pousada.usuarios.domain.UsuarioPapeisAlteradosEvent;
 import br.com.pousda.pousada.usuarios.domain.UsuarioUsernameAudit;
 import br.com.pousda.pousada.usuarios.domain.enums.AvatarMode;
 import br.com.pousda.pousada.usuarios.dtos.*;
@@ -12,6 +13,7 @@ import lombok.RequiredArgsConstructor;
 import org.hibernate.Hibernate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -57,6 +59,7 @@ public class UsuarioService {
     private final NotifierFacade notifier;
     private final UsuarioUsernameAuditRepository usernameAuditRepo;
     private final UsuarioAcessoLogRepository acessoLogRepo;
+    private final ApplicationEventPublisher events;
 
     // =========================================================
     // LISTAR
@@ -189,6 +192,7 @@ public class UsuarioService {
             u.setCodigo(gerarCodigoAnoSequencialGlobal());
             repo.saveAndFlush(u);
         }
+        events.publishEvent(new UsuarioPapeisAlteradosEvent(u.getId(), "criado"));
 
         try { notifier.usuarioCriado(criador, u); }
         catch (Exception e) {
@@ -285,6 +289,7 @@ public class UsuarioService {
         }
 
         Usuario salvo = repo.save(alvo);
+        events.publishEvent(new UsuarioPapeisAlteradosEvent(salvo.getId(), "atualizado"));
 
         List<Change> changes = diffUsuario(before, salvo);
         String msg = formatUsuarioAtualizadoMensagem(ator, salvo, changes);
@@ -325,6 +330,7 @@ public class UsuarioService {
             alvo.setMustChangePassword(true);
             alvo.setPwdChangeReason("ACCOUNT_INACTIVATED");
             repo.save(alvo);
+            events.publishEvent(new UsuarioPapeisAlteradosEvent(alvo.getId(), "inativado"));
             try { notifier.usuarioStatusAlterado(ator, alvo, false, "Conta desativada"); }
             catch (Exception e) { log.warn("Falha ao notificar 'usuarioStatusAlterado' (inativo) para userId={}: {}", alvo.getId(), e.getMessage()); }
         } else {
@@ -333,6 +339,7 @@ public class UsuarioService {
             alvo.setMustChangePassword(false);
             alvo.setPwdChangeReason(null);
             repo.save(alvo);
+            events.publishEvent(new UsuarioPapeisAlteradosEvent(alvo.getId(), "reativado"));
             try { notifier.usuarioStatusAlterado(ator, alvo, true, "Conta reativada"); }
             catch (Exception e) { log.warn("Falha ao notificar 'usuarioStatusAlterado' (ativo) para userId={}: {}", alvo.getId(), e.getMessage()); }
         }
@@ -393,6 +400,7 @@ public class UsuarioService {
         catch (Exception e) { log.warn("Falha ao notificar 'usuarioExcluido' para userId={}: {}", alvo.getId(), e.getMessage()); }
 
         repo.deleteById(id);
+        events.publishEvent(new UsuarioPapeisAlteradosEvent(id, "excluido"));
     }
 
     // =========================================================
@@ -0,0 +1,16 @@
+package br.com.pousda.pousada.usuarios.domain;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Publicado quando muda quem é ADMIN/DEV/GERENTE ativo (criação, edição, status, exclusão).
+ * Quem guarda listas de ids por perfil (ex.: cache de destinatários) deve descartá-las.
+ */
+@Getter
+@RequiredArgsConstructor
+public class UsuarioPapeisAlteradosEvent {
+
+    private final Long usuarioId;
+    private final String motivo;
+}
@@ -7,6 +7,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -66,4 +67,8 @@ public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
 
 
     long countByAtivoTrue();
+
+    // [0]=id, [1]=nome — resolve nomes de auditoria de uma página inteira num único SELECT
+    @Query("SELECT u.id, u.nome FROM Usuario u WHERE u.id IN :ids")
+    List<Object[]> findNomesPorIds(@Param("ids") Collection<Long> ids);
 }
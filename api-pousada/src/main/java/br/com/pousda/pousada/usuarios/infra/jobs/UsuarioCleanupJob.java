@@ -3,9 +3,11 @@ package br.com.pousda.pousada.usuarios.infra.jobs;
 
 import br.com.pousda.pousada.notificacoes.application.facade.NotifierFacade;
 import br.com.pousda.pousada.usuarios.domain.Usuario;
+import br.com.pousda.pousada.usuarios.domain.UsuarioPapeisAlteradosEvent;
 import br.com.pousda.pousada.usuarios.infra.UsuarioRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
@@ -22,6 +24,7 @@ public class UsuarioCleanupJob {
 
     private final UsuarioRepository repo;
     private final NotifierFacade notifier;
+    private final ApplicationEventPublisher events;
 
     // todos os dias às 02:20 BRT
     @Scheduled(cron = "0 20 2 * * *", zone = "America/Sao_Paulo")
@@ -39,6 +42,7 @@ public class UsuarioCleanupJob {
             String nome = u.getNome();
             repo.delete(u);
             excluidos++;
+            events.publishEvent(new UsuarioPapeisAlteradosEvent(id, "excluido-automaticamente"));
 
             // notificar admins sobre auto-exclusão
             try {
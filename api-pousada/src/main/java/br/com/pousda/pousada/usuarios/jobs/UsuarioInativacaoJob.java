@@ -2,8 +2,10 @@ package br.com.pousda.pousada.usuarios.jobs;
 
 import br.com.pousda.pousada.notificacoes.application.facade.NotifierFacade;
 import br.com.pousda.pousada.usuarios.domain.Usuario;
+import br.com.pousda.pousada.usuarios.domain.UsuarioPapeisAlteradosEvent;
 import br.com.pousda.pousada.usuarios.infra.UsuarioRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
@@ -17,6 +19,7 @@ public class UsuarioInativacaoJob {
 
     private final UsuarioRepository repo;
     private final NotifierFacade notifier;
+    private final ApplicationEventPublisher events;
 
     // roda todo dia 09:00 BRT
     @Scheduled(cron = "0 0 9 * * *", zone = "America/Sao_Paulo")
@@ -33,6 +36,7 @@ public class UsuarioInativacaoJob {
             if (diasRestantes <= 0) {
                 try { notifier.usuarioExcluidoAutomaticamente(u.getId(), u.getNome()); } catch (Exception ignored) {}
                 repo.deleteById(u.getId());
+                events.publishEvent(new UsuarioPapeisAlteradosEvent(u.getId(), "excluido-automaticamente"));
                 continue;
             }
 
@@ -0,0 +1,18 @@
+package br.com.pousda.pousada.util;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/** Página por cursor (keyset): o cliente devolve proximoCursor para pedir a página seguinte. */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPaginaDTO<T> {
+
+    private List<T> conteudo;
+    private Long proximoCursor;
+    private boolean temMais;
+}
@@ -0,0 +1,37 @@
+package br.com.pousda.pousada.util;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Base dos runners que criam índices na subida sem depender de migração.
+ * Cada DDL é tentado isoladamente: falha (sem permissão, extensão indisponível) vira aviso no log
+ * e a aplicação sobe do mesmo jeito, só sem o índice.
+ */
+@Slf4j
+public abstract class IndicesRunner implements ApplicationRunner {
+
+    private final JdbcTemplate jdbc;
+    private final String tag;
+
+    protected IndicesRunner(JdbcTemplate jdbc, String tag) {
+        this.jdbc = jdbc;
+        this.tag = tag;
+    }
+
+    /** @return false se o banco recusou o DDL */
+    protected boolean executar(String ddl) {
+        try {
+            jdbc.execute(ddl);
+            return true;
+        } catch (Exception e) {
+            log.warn("[{}] Não foi possível executar '{}': {}", tag, ddl, e.getMessage());
+            return false;
+        }
+    }
+
+    protected boolean habilitarTrigram() {
+        return executar("CREATE EXTENSION IF NOT EXISTS pg_trgm");
+    }
+}
@@ -0,0 +1,26 @@
+package br.com.pousda.pousada.util;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Page;
+
+import java.util.List;
+
+/** Envelope de página para as grades (conteúdo + total), sem expor o PageImpl do Spring no JSON. */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaginaDTO<T> {
+
+    private List<T> conteudo;
+    private int pagina;
+    private int tamanho;
+    private long total;
+    private int totalPaginas;
+
+    public static <T> PaginaDTO<T> de(Page<T> page) {
+        return new PaginaDTO<>(page.getContent(), page.getNumber(), page.getSize(),
+                page.getTotalElements(), page.getTotalPages());
+    }
+}
@@ -0,0 +1,123 @@
+package br.com.pousda.pousada.dashboard.application;
+
+import org.junit.jupiter.api.Test;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class OcupacaoDiariaTest {
+
+    private static final LocalDate D1 = LocalDate.of(2025, 3, 1);
+    private static final LocalDate D5 = LocalDate.of(2025, 3, 5);
+
+    private static Object[] h(LocalDate ini, LocalDate fimExclusivo) {
+        return new Object[]{"H", ini, fimExclusivo};
+    }
+
+    private static Object[] r(LocalDate dia) {
+        return new Object[]{"R", dia, dia.plusDays(1)};
+    }
+
+    @Test
+    void periodoSemIntervalosTemTodosOsDiasZerados() {
+        OcupacaoDiaria o = OcupacaoDiaria.calcular(List.of(), D1, D5);
+
+        assertEquals(5, o.dias());
+        assertEquals(D1, o.dia(0));
+        assertEquals(D5, o.dia(4));
+        assertArrayEquals(new long[]{0, 0, 0, 0, 0}, o.quartosOcupados);
+        assertArrayEquals(new long[]{0, 0, 0, 0, 0}, o.reservasPendentes);
+    }
+
+    @Test
+    void diaDeSaidaNaoContaComoOcupado() {
+        List<Object[]> in = List.<Object[]>of(h(D1.plusDays(1), D1.plusDays(3)));
+
+        OcupacaoDiaria o = OcupacaoDiaria.calcular(in, D1, D5);
+
+        assertArrayEquals(new long[]{0, 1, 1, 0, 0}, o.quartosOcupados);
+    }
+
+    @Test
+    void intervalosQueCruzamAsBordasSaoRecortadosNoPeriodo() {
+        List<Object[]> in = List.of(
+                h(D1.minusDays(10), D1.plusDays(2)),   // começou antes
+                h(D1.plusDays(3), D5.plusDays(30)),    // termina depois
+                h(D1.minusDays(5), D5.plusDays(5)));   // cobre tudo
+
+        OcupacaoDiaria o = OcupacaoDiaria.calcular(in, D1, D5);
+
+        assertArrayEquals(new long[]{2, 2, 1, 2, 2}, o.quartosOcupados);
+    }
+
+    @Test
+    void intervalosForaDoPeriodoSaoIgnorados() {
+        List<Object[]> in = List.of(
+                h(D1.minusDays(3), D1),                // saída no primeiro dia: não ocupa
+                h(D5.plusDays(1), D5.plusDays(4)));    // entra depois do fim
+
+        OcupacaoDiaria o = OcupacaoDiaria.calcular(in, D1, D5);
+
+        assertArrayEquals(new long[]{0, 0, 0, 0, 0}, o.quartosOcupados);
+    }
+
+    @Test
+    void saidaIgualOuAnteriorAEntradaOuNulaNaoOcupa() {
+        // a consulta já troca saída nula/igual por entrada + 1; aqui garantimos que nada quebra se vier cru
+        List<Object[]> in = new ArrayList<>();
+        in.add(h(D1.plusDays(1), D1.plusDays(1)));
+        in.add(h(D1.plusDays(2), D1));
+        in.add(h(D1.plusDays(2), null));
+        in.add(h(null, D1.plusDays(2)));
+
+        OcupacaoDiaria o = OcupacaoDiaria.calcular(in, D1, D5);
+
+        assertArrayEquals(new long[]{0, 0, 0, 0, 0}, o.quartosOcupados);
+    }
+
+    @Test
+    void estadiaDeUmDiaOcupaSoAEntrada() {
+        List<Object[]> in = List.<Object[]>of(h(D5, D5.plusDays(1)));
+
+        OcupacaoDiaria o = OcupacaoDiaria.calcular(in, D1, D5);
+
+        assertArrayEquals(new long[]{0, 0, 0, 0, 1}, o.quartosOcupados);
+    }
+
+    @Test
+    void reservasContamSeparadasDasHospedagens() {
+        List<Object[]> in = List.of(
+                r(D1), r(D1), r(D1.plusDays(2)),
+                h(D1, D1.plusDays(2)));
+
+        OcupacaoDiaria o = OcupacaoDiaria.calcular(in, D1, D5);
+
+        assertArrayEquals(new long[]{2, 0, 1, 0, 0}, o.reservasPendentes);
+        assertArrayEquals(new long[]{1, 1, 0, 0, 0}, o.quartosOcupados);
+    }
+
+    @Test
+    void aceitaDatasJdbc() {
+        Object[] row = {"H", Date.valueOf(D1.plusDays(1)), Date.valueOf(D1.plusDays(2))};
+
+        OcupacaoDiaria o = OcupacaoDiaria.calcular(List.<Object[]>of(row), D1, D5);
+
+        assertArrayEquals(new long[]{0, 1, 0, 0, 0}, o.quartosOcupados);
+    }
+
+    @Test
+    void periodoDeUmDia() {
+        List<Object[]> in = List.<Object[]>of(h(D1.minusDays(1), D1.plusDays(1)), r(D1));
+
+        OcupacaoDiaria o = OcupacaoDiaria.calcular(in, D1, D1);
+
+        assertEquals(1, o.dias());
+        assertArrayEquals(new long[]{1}, o.quartosOcupados);
+        assertArrayEquals(new long[]{1}, o.reservasPendentes);
+    }
+}